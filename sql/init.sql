@@ -1,2 +0,0 @@
-ALTER TABLE categories 
-ADD budget REAL
\ No newline at end of file
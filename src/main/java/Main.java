@@ -1,6 +1,7 @@
 import gui.SidebarNavigationPane;
 import gui.app.App;
 import gui.app.AppSettings;
+import gui.app.AsyncData;
 import gui.components.chart.BudgetProgressBar;
 import gui.components.chart.DoughnutChart;
 import javafx.application.Application;
@@ -10,6 +11,10 @@ import javafx.scene.Scene;
 import javafx.scene.chart.PieChart;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import server.dao.ConnectionPool;
+import server.dao.SchemaMigrator;
+
+import java.sql.SQLException;
 
 public class Main extends Application {
 	private void testing (Stage stage) {
@@ -37,9 +42,8 @@ public class Main extends Application {
     }
 	
 	private void real (Stage primaryStage) {
-		SidebarNavigationPane page = new SidebarNavigationPane();
 		StackPane root = new StackPane();
-		root.getChildren().add(page);
+		root.getStyleClass().add("main");
         Scene scene = new Scene(root, 1000, 600);
         scene.getStylesheets().add(getClass().getResource("layout.css").toExternalForm());
         if (AppSettings.getInstance().isDarkMode())
@@ -55,6 +59,17 @@ public class Main extends Application {
         primaryStage.setTitle("Test");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        // The migration and App's first load query the database, so the pages are built once they are done
+        AsyncData.getInstance().load("startup", () -> {
+            try {
+                new SchemaMigrator().migrate();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            App.getInstance();
+            return null;
+        }, ignored -> root.getChildren().add(new SidebarNavigationPane()));
 	}
 	
     @Override
@@ -62,6 +77,11 @@ public class Main extends Application {
         real(primaryStage);
     }
 
+    @Override
+    public void stop() {
+        ConnectionPool.getInstance().shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
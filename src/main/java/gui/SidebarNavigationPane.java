@@ -48,7 +48,11 @@ public class SidebarNavigationPane extends HBox {
         contentPaneMap = new HashMap<>();
         contentPaneMap.put("Overview", OverviewPage::getInstance);
         contentPaneMap.put("Analysis", AnalysisPage::new);
-        contentPaneMap.put("Accounts", AccountsPage::new);
+        contentPaneMap.put("Accounts", () -> {
+            AccountsPage page = AccountsPage.getInstance();
+            page.reload();
+            return page;
+        });
         contentPaneMap.put("Savings", SavingsPage::new);
         contentPaneMap.put("Settings", SettingsPage::new);
     }
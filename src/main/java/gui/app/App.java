@@ -1,39 +1,64 @@
 package gui.app;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import server.event.AccountChanged;
+import server.event.BalanceChanged;
+import server.event.CategoryChanged;
+import server.event.ChangeBus;
+import server.event.ChangeEvent;
+import server.event.TransactionChanged;
+import server.event.TransactionsImported;
 import server.model.Account;
 import server.model.Category;
 import server.model.Transaction;
+import server.model.TransactionType;
 import server.service.AccountService;
 import server.service.CategoryService;
+import server.service.EntityRegistry;
 import server.service.TransactionService;
 
 public class App {
 	private static App instance;
-	private List<Transaction> transactionList;
-	private List<Account> accountList;
-	private List<Category> incomeCategoryList, expenseCategoryList;
+	private volatile List<Account> accountList;
+	private volatile List<Category> incomeCategoryList, expenseCategoryList;
 	private final AccountService accountService;
 	private final CategoryService categoryService;
 	private final TransactionService transactionService;
+	private final MonthCache monthCache;
 	private int month, year;
+	private volatile int reloadCount;
 	
 	private App () {
 		accountService = new AccountService();
 		categoryService = new CategoryService();
 		transactionService = new TransactionService();
+		monthCache = new MonthCache(m -> transactionService.getTransactionsByMonth(m.getMonthValue(), m.getYear()));
 		month = LocalDateTime.now().getMonthValue();
 		year = LocalDateTime.now().getYear();
 		
 		reload();
+		subscribeToChanges();
 	}
 	
+	// Re-reads everything, e.g. after the database file was replaced
 	public void reload() {
+		EntityRegistry.getInstance().invalidateAccounts();
+		EntityRegistry.getInstance().invalidateCategories();
+		monthCache.invalidateAll();
 		loadAccountData();
 		loadCategoryData();
 		loadTransactionData();
+		reloadCount++;
+	}
+
+	// Bumped by every reload, so views that follow change events can tell they missed a replacement
+	public int getReloadCount() {
+		return reloadCount;
 	}
 	
 	public void loadAccountData () {
@@ -45,9 +70,105 @@ public class App {
 		expenseCategoryList = categoryService.getAllExpenseCategories();
 	}
 	
+	// Served from the month cache when possible; the neighbouring months are then prefetched.
+	// Month navigation only selects the month; the pages load it through AsyncData.
 	public void loadTransactionData () {
-		transactionList = transactionService.getTransactionsByMonth(month, year);
+		YearMonth current = YearMonth.of(year, month);
+		monthCache.get(current);
+		monthCache.show(current);
+	}
+
+	/*
+	 * Writes reach the lists held here as change events published by the DAOs once
+	 * committed (on the writing thread). Each list is replaced by an edited copy, never
+	 * changed in place, so a page reading one while a write lands sees a consistent list.
+	 */
+
+	private void subscribeToChanges() {
+		ChangeBus bus = ChangeBus.getInstance();
+		bus.subscribe(AccountChanged.class, this::onAccountChanged);
+		bus.subscribe(BalanceChanged.class, this::onBalanceChanged);
+		bus.subscribe(CategoryChanged.class, this::onCategoryChanged);
+		bus.subscribe(TransactionChanged.class, this::onTransactionChanged);
+		bus.subscribe(TransactionsImported.class, this::onTransactionsImported);
+	}
+
+	private synchronized void onAccountChanged(AccountChanged event) {
+		List<Account> accounts = new ArrayList<>(accountList);
+		int index = indexOfAccount(accounts, event.getId());
+		if (event.getKind() == ChangeEvent.Kind.DELETED) {
+			if (index >= 0) accounts.remove(index);
+			// Its transactions were deleted with it
+			monthCache.invalidateAll();
+		} else if (index >= 0) {
+			accounts.set(index, event.getAccount());
+		} else {
+			accounts.add(event.getAccount());
+		}
+		accountList = accounts;
 	}
+
+	private synchronized void onBalanceChanged(BalanceChanged event) {
+		List<Account> accounts = new ArrayList<>(accountList);
+		int index = indexOfAccount(accounts, event.getAccountId());
+		if (index < 0) return;
+		Account a = accounts.get(index);
+		accounts.set(index, new Account(a.getId(), a.getName(), a.getGroup(), a.getBalance() + event.getDelta(), a.getGoal()));
+		accountList = accounts;
+	}
+
+	private synchronized void onCategoryChanged(CategoryChanged event) {
+		List<Category> income = new ArrayList<>(incomeCategoryList);
+		List<Category> expense = new ArrayList<>(expenseCategoryList);
+		boolean replaced = false;
+		for (List<Category> categories : Arrays.asList(income, expense)) {
+			for (int i = 0; i < categories.size(); i++) {
+				if (categories.get(i).getId() != event.getId()) continue;
+				if (event.getKind() == ChangeEvent.Kind.DELETED) {
+					categories.remove(i);
+				} else {
+					categories.set(i, event.getCategory());
+				}
+				replaced = true;
+				break;
+			}
+		}
+		if (event.getKind() == ChangeEvent.Kind.DELETED) {
+			// Its transactions were deleted with it
+			monthCache.invalidateAll();
+		} else if (!replaced) {
+			(event.getCategory().getType() == TransactionType.INCOME ? income : expense).add(event.getCategory());
+		}
+		incomeCategoryList = income;
+		expenseCategoryList = expense;
+	}
+
+	// Edits the cached months in place: remove the old row, insert the new one at its date
+	private void onTransactionChanged(TransactionChanged event) {
+		Transaction before = event.getBefore();
+		Transaction after = event.getAfter();
+		if (before != null) {
+			monthCache.remove(YearMonth.from(before.getDateTime()), before);
+		}
+		if (after != null) {
+			monthCache.insert(YearMonth.from(after.getDateTime()), after.prototype());
+		}
+	}
+
+	// Imported rows are not carried by the event; their months are reloaded when next shown
+	private void onTransactionsImported(TransactionsImported event) {
+		for (YearMonth affected : event.getAffectedMonths()) {
+			monthCache.invalidate(affected);
+		}
+	}
+
+	private static int indexOfAccount(List<Account> accounts, int id) {
+		for (int i = 0; i < accounts.size(); i++) {
+			if (accounts.get(i).getId() == id) return i;
+		}
+		return -1;
+	}
+
 	
 	public int getMonth() {
 		return month;
@@ -57,8 +178,23 @@ public class App {
 		return year;
 	}
 
+	// The selected month's transactions, reloaded here if a write invalidated them
 	public List<Transaction> getTransactionList() {
-		return transactionList;
+		return getTransactionList(getSelectedMonth());
+	}
+
+	// May query the database; pages call it through AsyncData
+	public List<Transaction> getTransactionList(YearMonth month) {
+		return monthCache.get(month);
+	}
+
+	// The month's sums for the dashboards; may query the database like getTransactionList
+	public MonthAggregate getMonthAggregate(YearMonth month) {
+		return monthCache.getAggregate(month);
+	}
+
+	public YearMonth getSelectedMonth() {
+		return YearMonth.of(year, month);
 	}
 
 	public List<Account> getAccountList() {
@@ -85,21 +221,21 @@ public class App {
 		} else {
 			month--;
 		}
-        loadTransactionData();
+        monthCache.show(getSelectedMonth());
     }
 
     public void nextTimeStamp() {
-        LocalDateTime now = LocalDateTime.now();
 		if (month == 12) {
 			month = 1;
 			year++;
 		} else {
 			month++;
 		}
-        loadTransactionData();
+        monthCache.show(getSelectedMonth());
     }
 
-	public static App getInstance () {
+	// The first call loads accounts, categories and the current month; Main makes it off the FX thread
+	public static synchronized App getInstance () {
 		if (instance == null)
 			instance = new App();
 		return instance;
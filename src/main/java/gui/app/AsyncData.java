@@ -0,0 +1,85 @@
+package gui.app;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import gui.components.util.ErrorModal;
+import javafx.application.Platform;
+
+/**
+ * Runs database reads for the pages on background threads, so the JavaFX
+ * application thread never waits on JDBC.
+ * <p>
+ * Each request has a key, usually the page. A newer request with the same key
+ * supersedes the older one: if the older one has not started it never runs, and if
+ * it has, its result is dropped. So clicking quickly through months only renders the
+ * month the user stopped at. Results are handed to the page on the FX thread.
+ * <p>
+ * Call {@link #load} from the FX thread.
+ */
+public class AsyncData {
+    private static final int THREADS = 2;
+
+    private static AsyncData instance;
+
+    private final ExecutorService executor;
+    private final Map<Object, CompletableFuture<?>> latest = new ConcurrentHashMap<>();
+
+    private AsyncData() {
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "data-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized AsyncData getInstance() {
+        if (instance == null) instance = new AsyncData();
+        return instance;
+    }
+
+    /**
+     * Runs {@code query} on a background thread and passes its result to {@code onLoaded}
+     * on the FX thread, unless a later request with the same key was made meanwhile.
+     * A failed query is reported to the user and {@code onLoaded} is not called.
+     *
+     * @return the pending result; cancelled if superseded
+     */
+    public <T> CompletableFuture<T> load(Object key, Callable<T> query, Consumer<? super T> onLoaded) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<?> previous = latest.put(key, future);
+        if (previous != null) previous.cancel(false);
+
+        executor.execute(() -> {
+            if (future.isDone()) return; // superseded before it started
+            try {
+                future.complete(query.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (!latest.remove(key, future)) return; // superseded
+            if (error != null) {
+                error.printStackTrace();
+                new ErrorModal("Failed to load data: " + error.getMessage()).show();
+            } else {
+                onLoaded.accept(result);
+            }
+        }));
+        return future;
+    }
+
+    // True while a request with this key is waiting for its result
+    public boolean isLoading(Object key) {
+        return latest.containsKey(key);
+    }
+}
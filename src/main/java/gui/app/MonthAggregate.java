@@ -0,0 +1,207 @@
+package gui.app;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import server.model.Transaction;
+import server.model.TransactionType;
+
+/**
+ * Sums of one month's transactions, computed in a single pass so the dashboard
+ * widgets do not each rescan the month.
+ * <p>
+ * Amounts are kept by type (indexed by ordinal), by type and category, and by account,
+ * each split by day of month. Every such row is 32 doubles: index 0 holds the month's total and index
+ * {@code d} the total of day {@code d}. Amounts are positive; whether they add or
+ * subtract is given by the type.
+ * <p>
+ * Instances handed out by {@link App} are not changed afterwards; the month cache
+ * applies writes to a copy.
+ */
+public class MonthAggregate {
+    private static final int TYPES = TransactionType.values().length;
+    private static final int STRIDE = 32;
+
+    private final YearMonth month;
+    private final double[] byType;
+    private final int[] countByType;
+
+    // One slot per (type, category) pair seen in the month
+    private int categorySlots;
+    private int[] slotTypes; // ordinals
+    private int[] slotCategories;
+    private double[] byCategory;
+
+    // Money into an account (income, transfer in) and out of it (expense, transfer out)
+    private int accountSlots;
+    private int[] accountIds;
+    private double[] accountIn;
+    private double[] accountOut;
+
+    private MonthAggregate(YearMonth month) {
+        this.month = month;
+        byType = new double[TYPES * STRIDE];
+        countByType = new int[TYPES * STRIDE];
+        slotTypes = new int[8];
+        slotCategories = new int[8];
+        byCategory = new double[8 * STRIDE];
+        accountIds = new int[8];
+        accountIn = new double[8 * STRIDE];
+        accountOut = new double[8 * STRIDE];
+    }
+
+    private MonthAggregate(MonthAggregate other) {
+        month = other.month;
+        byType = other.byType.clone();
+        countByType = other.countByType.clone();
+        categorySlots = other.categorySlots;
+        slotTypes = other.slotTypes.clone();
+        slotCategories = other.slotCategories.clone();
+        byCategory = other.byCategory.clone();
+        accountSlots = other.accountSlots;
+        accountIds = other.accountIds.clone();
+        accountIn = other.accountIn.clone();
+        accountOut = other.accountOut.clone();
+    }
+
+    // Transactions outside the month are ignored
+    public static MonthAggregate of(YearMonth month, List<Transaction> transactions) {
+        MonthAggregate aggregate = new MonthAggregate(month);
+        for (Transaction transaction : transactions) {
+            aggregate.apply(transaction, 1);
+        }
+        return aggregate;
+    }
+
+    MonthAggregate copy() {
+        return new MonthAggregate(this);
+    }
+
+    void add(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    void remove(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        TransactionType kind = transaction.getType();
+        if (kind == null || !YearMonth.from(transaction.getDateTime()).equals(month)) return;
+        int type = kind.ordinal();
+        int day = transaction.getDateTime().getDayOfMonth();
+        double amount = sign * transaction.getAmount();
+
+        addToRow(byType, type, day, amount);
+        countByType[type * STRIDE] += sign;
+        countByType[type * STRIDE + day] += sign;
+
+        if (kind == TransactionType.TRANSFER) {
+            addToRow(accountOut, accountSlot(transaction.getSourceAccount()), day, amount);
+            addToRow(accountIn, accountSlot(transaction.getDestinationAccount()), day, amount);
+        } else {
+            addToRow(byCategory, categorySlot(type, transaction.getCategory()), day, amount);
+            addToRow(kind == TransactionType.INCOME ? accountIn : accountOut, accountSlot(transaction.getSourceAccount()), day, amount);
+        }
+    }
+
+    private static void addToRow(double[] rows, int slot, int day, double amount) {
+        rows[slot * STRIDE] += amount;
+        rows[slot * STRIDE + day] += amount;
+    }
+
+    private int categorySlot(int type, int category) {
+        int slot = findCategorySlot(type, category);
+        if (slot >= 0) return slot;
+        if (categorySlots == slotTypes.length) {
+            slotTypes = Arrays.copyOf(slotTypes, categorySlots * 2);
+            slotCategories = Arrays.copyOf(slotCategories, categorySlots * 2);
+            byCategory = Arrays.copyOf(byCategory, categorySlots * 2 * STRIDE);
+        }
+        slotTypes[categorySlots] = type;
+        slotCategories[categorySlots] = category;
+        return categorySlots++;
+    }
+
+    private int findCategorySlot(int type, int category) {
+        for (int i = 0; i < categorySlots; i++) {
+            if (slotCategories[i] == category && slotTypes[i] == type) return i;
+        }
+        return -1;
+    }
+
+    private int accountSlot(int account) {
+        int slot = findAccountSlot(account);
+        if (slot >= 0) return slot;
+        if (accountSlots == accountIds.length) {
+            accountIds = Arrays.copyOf(accountIds, accountSlots * 2);
+            accountIn = Arrays.copyOf(accountIn, accountSlots * 2 * STRIDE);
+            accountOut = Arrays.copyOf(accountOut, accountSlots * 2 * STRIDE);
+        }
+        accountIds[accountSlots] = account;
+        return accountSlots++;
+    }
+
+    private int findAccountSlot(int account) {
+        for (int i = 0; i < accountSlots; i++) {
+            if (accountIds[i] == account) return i;
+        }
+        return -1;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getDaysInMonth() {
+        return month.lengthOfMonth();
+    }
+
+    public double getTotal(TransactionType type) {
+        return byType[type.ordinal() * STRIDE];
+    }
+
+    public double getDaily(TransactionType type, int day) {
+        return byType[type.ordinal() * STRIDE + day];
+    }
+
+    // Number of transactions of the type on the day, or in the month for day 0
+    public int getCount(TransactionType type, int day) {
+        return countByType[type.ordinal() * STRIDE + day];
+    }
+
+    public double getCategoryTotal(TransactionType type, int category) {
+        return getCategoryDaily(type, category, 0);
+    }
+
+    public double getCategoryDaily(TransactionType type, int category, int day) {
+        int slot = findCategorySlot(type.ordinal(), category);
+        return slot < 0 ? 0 : byCategory[slot * STRIDE + day];
+    }
+
+    // Categories with transactions of the type this month, in order of first appearance
+    public int[] getCategories(TransactionType type) {
+        int[] categories = new int[categorySlots];
+        int count = 0;
+        for (int i = 0; i < categorySlots; i++) {
+            if (slotTypes[i] == type.ordinal()) categories[count++] = slotCategories[i];
+        }
+        return Arrays.copyOf(categories, count);
+    }
+
+    public double getAccountIn(int account, int day) {
+        int slot = findAccountSlot(account);
+        return slot < 0 ? 0 : accountIn[slot * STRIDE + day];
+    }
+
+    public double getAccountOut(int account, int day) {
+        int slot = findAccountSlot(account);
+        return slot < 0 ? 0 : accountOut[slot * STRIDE + day];
+    }
+
+    // Change of the account's balance on the day, or over the month for day 0
+    public double getAccountNet(int account, int day) {
+        return getAccountIn(account, day) - getAccountOut(account, day);
+    }
+}
@@ -0,0 +1,231 @@
+package gui.app;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import server.model.Transaction;
+
+/**
+ * Transactions of recently visited months, so navigating back and forth does not
+ * re-query the database. Each month's {@link MonthAggregate} is kept alongside and
+ * updated with it.
+ * <p>
+ * Months are kept in least-recently-used order and evicted once there are more than
+ * {@code moneymanager.monthCache.months} of them (default 12) or their estimated size
+ * exceeds {@code moneymanager.monthCache.maxBytes} (default 32 MB). The month being
+ * shown is never evicted. After a month is shown, its neighbours are loaded on a
+ * background thread.
+ * <p>
+ * Writes must call {@link #insert}, {@link #remove} or {@link #invalidate(YearMonth)} for every month
+ * they touch (or {@link #invalidateAll()}). Each of these bumps a generation counter,
+ * and a load that started before it is returned to its caller but not stored, so a
+ * prefetch that raced a write can never put stale rows back.
+ * <p>
+ * Cached lists are unmodifiable and shared; copy before changing them. Aggregates are
+ * likewise never changed once handed out.
+ */
+class MonthCache {
+    private static final int DEFAULT_MONTHS = 12;
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    // Rough heap cost of one Transaction with its LocalDateTime and list slot, excluding the note text
+    private static final long TRANSACTION_BYTES = 160;
+    // Rough heap cost of a MonthAggregate for a handful of categories and accounts
+    private static final long AGGREGATE_BYTES = 8 * 1024;
+
+    private final Function<YearMonth, List<Transaction>> loader;
+    private final int maxMonths;
+    private final long maxBytes;
+    private final LinkedHashMap<YearMonth, Entry> months = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "month-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long generation;
+    private long bytes;
+    private YearMonth pinned;
+
+    MonthCache(Function<YearMonth, List<Transaction>> loader) {
+        this(loader, Integer.getInteger("moneymanager.monthCache.months", DEFAULT_MONTHS),
+                Long.getLong("moneymanager.monthCache.maxBytes", DEFAULT_MAX_BYTES));
+    }
+
+    MonthCache(Function<YearMonth, List<Transaction>> loader, int maxMonths, long maxBytes) {
+        this.loader = loader;
+        this.maxMonths = Math.max(1, maxMonths);
+        this.maxBytes = maxBytes;
+    }
+
+    // Returns the month's transactions, loading them on the calling thread if they are not cached
+    List<Transaction> get(YearMonth month) {
+        return getEntry(month).transactions;
+    }
+
+    // Returns the month's sums, loading the month on the calling thread if it is not cached
+    MonthAggregate getAggregate(YearMonth month) {
+        return getEntry(month).aggregate;
+    }
+
+    private Entry getEntry(YearMonth month) {
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = months.get(month);
+            if (entry != null) return entry;
+            startGeneration = generation;
+        }
+        return load(month, startGeneration);
+    }
+
+    // Marks month as the one being shown and loads its neighbours in the background
+    void show(YearMonth month) {
+        synchronized (this) {
+            pinned = month;
+        }
+        prefetch(month.minusMonths(1));
+        if (!month.plusMonths(1).isAfter(YearMonth.now())) prefetch(month.plusMonths(1));
+    }
+
+    /*
+     * insert and remove edit a copy of the cached month and its aggregate, so a single-row
+     * write does not cost a reload. If the month is not cached they only invalidate
+     * in-flight loads.
+     */
+
+    // Adds the transaction at its date; month lists are newest first, as loaded
+    synchronized void insert(YearMonth month, Transaction transaction) {
+        generation++;
+        Entry entry = months.get(month);
+        if (entry == null) return;
+        List<Transaction> transactions = new ArrayList<>(entry.transactions);
+        int index = 0;
+        while (index < transactions.size() && !transactions.get(index).getDateTime().isBefore(transaction.getDateTime())) {
+            index++;
+        }
+        transactions.add(index, transaction);
+        MonthAggregate aggregate = entry.aggregate.copy();
+        aggregate.add(transaction);
+        replace(month, entry, transactions, aggregate);
+    }
+
+    // Removes the row with the transaction's id, subtracting the transaction as given: the
+    // stored state, which is what the aggregate was built from
+    synchronized void remove(YearMonth month, Transaction transaction) {
+        generation++;
+        Entry entry = months.get(month);
+        if (entry == null) return;
+        List<Transaction> transactions = new ArrayList<>(entry.transactions);
+        MonthAggregate aggregate = entry.aggregate.copy();
+        for (int i = 0; i < transactions.size(); i++) {
+            if (transactions.get(i).getId() != transaction.getId()) continue;
+            transactions.remove(i);
+            aggregate.remove(transaction);
+            break;
+        }
+        replace(month, entry, transactions, aggregate);
+    }
+
+    private void replace(YearMonth month, Entry entry, List<Transaction> transactions, MonthAggregate aggregate) {
+        Entry updated = new Entry(Collections.unmodifiableList(transactions), aggregate, estimateBytes(transactions));
+        months.put(month, updated);
+        bytes += updated.bytes - entry.bytes;
+        evict();
+    }
+
+    synchronized void invalidate(YearMonth month) {
+        generation++;
+        Entry entry = months.remove(month);
+        if (entry != null) bytes -= entry.bytes;
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        months.clear();
+        bytes = 0;
+    }
+
+    synchronized boolean contains(YearMonth month) {
+        return months.containsKey(month);
+    }
+
+    synchronized int size() {
+        return months.size();
+    }
+
+    synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+
+    private void prefetch(YearMonth month) {
+        long startGeneration;
+        synchronized (this) {
+            if (months.containsKey(month)) return;
+            startGeneration = generation;
+        }
+        prefetcher.execute(() -> {
+            synchronized (this) {
+                if (months.containsKey(month)) return;
+            }
+            try {
+                load(month, startGeneration);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private Entry load(YearMonth month, long startGeneration) {
+        List<Transaction> transactions = Collections.unmodifiableList(loader.apply(month));
+        Entry entry = new Entry(transactions, MonthAggregate.of(month, transactions), estimateBytes(transactions));
+        synchronized (this) {
+            if (generation == startGeneration) {
+                Entry previous = months.put(month, entry);
+                if (previous != null) bytes -= previous.bytes;
+                bytes += entry.bytes;
+                evict();
+            }
+        }
+        return entry;
+    }
+
+    // Drops least recently used months until both limits hold, keeping the month being shown
+    private void evict() {
+        Iterator<Map.Entry<YearMonth, Entry>> iterator = months.entrySet().iterator();
+        while ((months.size() > maxMonths || bytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<YearMonth, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(pinned)) continue;
+            bytes -= eldest.getValue().bytes;
+            iterator.remove();
+        }
+    }
+
+    private static long estimateBytes(List<Transaction> transactions) {
+        long total = AGGREGATE_BYTES;
+        for (Transaction transaction : transactions) {
+            String note = transaction.getNote();
+            total += TRANSACTION_BYTES + (note == null ? 0 : 40 + note.length());
+        }
+        return total;
+    }
+
+    private static class Entry {
+        private final List<Transaction> transactions;
+        private final MonthAggregate aggregate;
+        private final long bytes;
+
+        private Entry(List<Transaction> transactions, MonthAggregate aggregate, long bytes) {
+            this.transactions = transactions;
+            this.aggregate = aggregate;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package gui.components.chart;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
+import gui.components.chart.util.Downsampler;
 import gui.components.chart.util.GraphDataPoint;
 import gui.components.chart.util.hansolo.SmoothedChart;
 
@@ -12,14 +15,23 @@ import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 
 public class SmoothedLineChart extends StackPane {
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("d");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM");
+    private static final DateTimeFormatter MONTH_YEAR_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final double PIXELS_PER_POINT = 4;
+
     private final SmoothedChart<String, Number> smoothedChart;
-    private Map<LocalDate, Double> balanceMap;
-    private final List<ChartSeries> seriesList;
+    private List<ChartSeries> seriesList;
+    private List<SeriesBuckets> seriesBuckets = new ArrayList<>();
+    private int shownLimit = Integer.MAX_VALUE; // most points per series at the current width
+    private boolean shownWithYear;
 
     public SmoothedLineChart() {
         seriesList = new ArrayList<>();
@@ -36,71 +48,161 @@ public class SmoothedLineChart extends StackPane {
         smoothedChart.setMinHeight(0);
         smoothedChart.setMinWidth(0);
         smoothedChart.setStyle("-fx-padding: 0 0 0 -40;");
-        init();
+        smoothedChart.setInteractive(true);
+        smoothedChart.setSelectionText(this::rawValueText);
+        this.getChildren().add(smoothedChart);
+        widthProperty().addListener((observable, oldWidth, newWidth) -> onWidthChanged());
     }
 
+    // Appends one series; the ones already shown are left as they are
     public void addSeries(List<GraphDataPoint> graphDataPoints, String seriesName, Color color) {
-        init();
-        seriesList.add(new ChartSeries(graphDataPoints, seriesName, color));
-        renderAllSeries();
+        List<ChartSeries> updated = new ArrayList<>(seriesList);
+        updated.add(new ChartSeries(graphDataPoints, seriesName, color));
+        setSeries(updated);
     }
 
-    private void init() {
-        smoothedChart.getData().clear();
-        this.getChildren().clear();
-        this.getChildren().add(smoothedChart);
+    // Shows exactly these series. Series and data points already on the chart are updated in
+    // place rather than rebuilt, so a refresh costs one layout pass instead of one per series.
+    public void setSeries(List<ChartSeries> series) {
+        List<SeriesBuckets> buckets = new ArrayList<>(series.size());
+        for (ChartSeries chartSeries : series) {
+            buckets.add(SeriesBuckets.of(chartSeries.getDataPoints()));
+        }
+        show(series, buckets, maxPoints());
     }
 
-    private void initializeMap() {
-        balanceMap = new TreeMap<>();
+    // The raw bucket under a selection, including points dropped to fit the chart's width:
+    // the x axis keeps a category for every bucket, so the category selected names it
+    private String rawValueText(XYChart.Series<String, Number> series, String category) {
+        int seriesIndex = smoothedChart.getData().indexOf(series);
+        if (seriesIndex < 0 || seriesIndex >= seriesBuckets.size()) return null;
+        SeriesBuckets buckets = seriesBuckets.get(seriesIndex);
+        int index = buckets.indexOf(category, shownWithYear);
+        if (index < 0) return null;
+        return category + "\n" + new DecimalFormat("#,##0.##").format(buckets.values[index]);
     }
 
-    private void processGraphDataPoints(List<GraphDataPoint> graphDataPoints) {
-        for (GraphDataPoint point : graphDataPoints) {
-            addDataPointToMap(point);
-        }
+    // A handful of pixels per point is as much detail as the curve can show
+    private int maxPoints() {
+        return getWidth() > 0 ? Math.max(3, (int) (getWidth() / PIXELS_PER_POINT)) : Integer.MAX_VALUE;
     }
 
-    private void addDataPointToMap(GraphDataPoint point) {
-        LocalDate date = point.getDate();
-        double amount = point.getValue();
-        balanceMap.put(date, balanceMap.getOrDefault(date, 0.0) + amount);
+    // Downsamples again when the new width changes how many points some series shows
+    private void onWidthChanged() {
+        int limit = maxPoints();
+        if (limit == shownLimit) return;
+        for (SeriesBuckets buckets : seriesBuckets) {
+            if (buckets.keys.length > Math.min(limit, shownLimit)) {
+                show(seriesList, seriesBuckets, limit);
+                return;
+            }
+        }
+        shownLimit = limit;
     }
 
-    private void renderAllSeries() {
+    private void show(List<ChartSeries> series, List<SeriesBuckets> buckets, int limit) {
+        ObservableList<XYChart.Series<String, Number>> shown = smoothedChart.getData();
         List<XYChart.Series<String, Number>> seriesToAdd = new ArrayList<>();
-
-        for (ChartSeries chartSeries : seriesList) {
-            initializeMap();
-            processGraphDataPoints(chartSeries.getDataPoints());
-            XYChart.Series<String, Number> balanceSeries = setChartData(chartSeries.getDataPoints(), chartSeries.getSeriesName());
-            seriesToAdd.add(balanceSeries);
+        double minValue = Double.MAX_VALUE;
+        double maxValue = -Double.MAX_VALUE;
+        boolean withYear = spansYears(buckets);
+        updateCategories(buckets, withYear);
+
+        for (int i = 0; i < series.size(); i++) {
+            ChartSeries chartSeries = series.get(i);
+            List<XYChart.Data<String, Number>> data = buckets.get(i).toChartData(limit, withYear);
+            minValue = Math.min(minValue, buckets.get(i).minValue);
+            maxValue = Math.max(maxValue, buckets.get(i).maxValue);
+
+            if (i >= shown.size()) {
+                XYChart.Series<String, Number> balanceSeries = new XYChart.Series<>();
+                balanceSeries.setName(chartSeries.getSeriesName());
+                balanceSeries.getData().setAll(data);
+                seriesToAdd.add(balanceSeries);
+                continue;
+            }
+            XYChart.Series<String, Number> balanceSeries = shown.get(i);
+            if (!Objects.equals(balanceSeries.getName(), chartSeries.getSeriesName())) {
+                balanceSeries.setName(chartSeries.getSeriesName());
+            }
+            boolean pointsAdded = patchData(balanceSeries.getData(), data);
+            // New points need the symbol style too
+            if (pointsAdded || !chartSeries.getColor().equals(seriesList.get(i).getColor())) {
+                setSeriesColor(balanceSeries, chartSeries.getColor());
+            }
+        }
+        if (series.isEmpty()) {
+            minValue = maxValue = 0;
         }
-        double minValue = balanceMap.values().stream().min(Double::compareTo).orElse(0.0);
-        double maxValue = balanceMap.values().stream().max(Double::compareTo).orElse(0.0);
-
         adjustYAxis(minValue, maxValue);
 
-        smoothedChart.getData().addAll(seriesToAdd);
-
-        for (int i = 0; i < seriesToAdd.size(); i++) {
-            setSeriesColor(seriesToAdd.get(i), seriesList.get(i).getColor());
+        if (shown.size() > series.size()) {
+            shown.remove(series.size(), shown.size());
+        }
+        if (!seriesToAdd.isEmpty()) {
+            int first = shown.size();
+            shown.addAll(seriesToAdd);
+            for (int i = first; i < shown.size(); i++) {
+                setSeriesColor(shown.get(i), series.get(i).getColor());
+            }
         }
-        
-        
+        seriesList = new ArrayList<>(series);
+        seriesBuckets = buckets;
+        shownLimit = limit;
+        shownWithYear = withYear;
     }
 
-    private XYChart.Series<String, Number> setChartData(List<GraphDataPoint> graphDataPoints, String seriesName) {
-        XYChart.Series<String, Number> balanceSeries = new XYChart.Series<>();
-        balanceSeries.setName(seriesName);
+    // Monthly labels carry the year once the series reach into more than one year
+    private static boolean spansYears(List<SeriesBuckets> buckets) {
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+        for (SeriesBuckets seriesBuckets : buckets) {
+            if (seriesBuckets.daily || seriesBuckets.keys.length == 0) continue;
+            firstYear = Math.min(firstYear, LocalDate.ofEpochDay(seriesBuckets.keys[0]).getYear());
+            lastYear = Math.max(lastYear, LocalDate.ofEpochDay(seriesBuckets.keys[seriesBuckets.keys.length - 1]).getYear());
+        }
+        return firstYear < lastYear;
+    }
 
-        if (isSingleMonth()) {
-            setDailySeries(balanceSeries, graphDataPoints);
-        } else {
-            setMonthlySeries(balanceSeries, graphDataPoints);
+    // Fixes the x axis to every bucket in date order, so points dropped by downsampling leave
+    // their gap instead of pulling the remaining points together
+    private void updateCategories(List<SeriesBuckets> buckets, boolean withYear) {
+        TreeMap<Long, String> labels = new TreeMap<>();
+        for (SeriesBuckets seriesBuckets : buckets) {
+            for (int i = 0; i < seriesBuckets.keys.length; i++) {
+                labels.computeIfAbsent(seriesBuckets.keys[i], key -> seriesBuckets.label(key, withYear));
+            }
+        }
+        List<String> categories = new ArrayList<>(new LinkedHashSet<>(labels.values()));
+        CategoryAxis xAxis = (CategoryAxis) smoothedChart.getXAxis();
+        if (!categories.equals(xAxis.getCategories())) {
+            xAxis.setAutoRanging(false);
+            xAxis.setCategories(FXCollections.observableArrayList(categories));
         }
+    }
 
-        return balanceSeries;
+    // Copies the values into the points already shown, adding or dropping points at the end.
+    // Returns whether points were added.
+    private static boolean patchData(ObservableList<XYChart.Data<String, Number>> shown, List<XYChart.Data<String, Number>> updated) {
+        int common = Math.min(shown.size(), updated.size());
+        for (int i = 0; i < common; i++) {
+            XYChart.Data<String, Number> point = shown.get(i);
+            XYChart.Data<String, Number> value = updated.get(i);
+            if (!point.getXValue().equals(value.getXValue())) {
+                point.setXValue(value.getXValue());
+            }
+            if (point.getYValue().doubleValue() != value.getYValue().doubleValue()) {
+                point.setYValue(value.getYValue());
+            }
+        }
+        if (shown.size() > common) {
+            shown.remove(common, shown.size());
+        }
+        if (updated.size() > common) {
+            shown.addAll(updated.subList(common, updated.size()));
+            return true;
+        }
+        return false;
     }
 
     private void adjustYAxis(double minValue, double maxValue) {
@@ -112,45 +214,6 @@ public class SmoothedLineChart extends StackPane {
         yAxis.setUpperBound(Math.ceil(maxValue * 1.1)); // Add 10% margin above max
     }
 
-    private boolean isSingleMonth() {
-        return balanceMap.keySet().stream()
-                .map(date -> date.withDayOfMonth(1))
-                .distinct()
-                .count() == 1;
-    }
-
-    private void setDailySeries(XYChart.Series<String, Number> balanceSeries, List<GraphDataPoint> ignoredGraphDataPoints) {
-        LocalDate firstDateInData = balanceMap.keySet().stream().min(LocalDate::compareTo).orElse(LocalDate.now());
-        LocalDate lastDateInData = balanceMap.keySet().stream().max(LocalDate::compareTo).orElse(LocalDate.now());
-        LocalDate firstDayOfMonth = firstDateInData.withDayOfMonth(1);
-
-        for (LocalDate date = firstDayOfMonth; !date.isAfter(lastDateInData); date = date.plusDays(1)) {
-            double balanceAmount = balanceMap.getOrDefault(date, 0.0);
-            XYChart.Data<String, Number> balanceData = new XYChart.Data<>(date.format(DateTimeFormatter.ofPattern("d")), balanceAmount);
-            balanceSeries.getData().add(balanceData);
-        }
-    }
-
-    private void setMonthlySeries(XYChart.Series<String, Number> balanceSeries, List<GraphDataPoint> ignoredGraphDataPoints) {
-        LocalDate firstDateInData = balanceMap.keySet().stream().min(LocalDate::compareTo).orElse(LocalDate.now());
-        LocalDate lastDateInData = balanceMap.keySet().stream().max(LocalDate::compareTo).orElse(LocalDate.now());
-        LocalDate firstMonth = firstDateInData.withDayOfMonth(1);
-        LocalDate lastMonthInData = lastDateInData.withDayOfMonth(1);
-
-        for (LocalDate date = firstMonth; !date.isAfter(lastMonthInData); date = date.plusMonths(1)) {
-            double balanceAmount = 0.0;
-            for (Map.Entry<LocalDate, Double> entry : balanceMap.entrySet()) {
-                LocalDate entryDate = entry.getKey();
-                if (entryDate.getMonth() == date.getMonth() && entryDate.getYear() == date.getYear()) {
-                    balanceAmount += entry.getValue();
-                }
-            }
-
-            XYChart.Data<String, Number> balanceData = new XYChart.Data<>(date.format(DateTimeFormatter.ofPattern("MMM")), balanceAmount);
-            balanceSeries.getData().add(balanceData);
-        }
-    }
-
     private void setSeriesColor(XYChart.Series<String, Number> series, Color color) {
         smoothedChart.setSeriesColor(series, color);
     }
@@ -168,7 +231,110 @@ public class SmoothedLineChart extends StackPane {
         }
     }
 
-    private static class ChartSeries {
+    // Sums of one series per day when it lies within a single month, otherwise per month,
+    // gathered in one pass over the points in any order. Kept at full resolution; what the
+    // chart shows is downsampled from them.
+    private static class SeriesBuckets {
+        private long lastDay = Long.MIN_VALUE;   // epoch day of the latest point
+        private int firstMonth = Integer.MAX_VALUE; // months since year 0
+        private int lastMonth = Integer.MIN_VALUE;
+        private int baseMonth;                   // month of slot 0 in months
+        private double[] months = new double[0];
+        private final double[] days = new double[31]; // days of the first point's month
+        private int dayMonth;
+        private boolean daily = true;
+        // The buckets shown, oldest first: epoch day of each day or month start, and its sum
+        private long[] keys;
+        private double[] values;
+        private double minValue;
+        private double maxValue;
+
+        static SeriesBuckets of(List<GraphDataPoint> points) {
+            SeriesBuckets buckets = new SeriesBuckets();
+            for (GraphDataPoint point : points) {
+                buckets.add(point.getDate(), point.getValue());
+            }
+            buckets.finish();
+            return buckets;
+        }
+
+        private void add(LocalDate date, double value) {
+            int month = date.getYear() * 12 + date.getMonthValue() - 1;
+            if (months.length == 0) {
+                baseMonth = dayMonth = month;
+                months = new double[12];
+            } else if (month < baseMonth) {
+                int extra = Math.max(months.length, baseMonth - month);
+                double[] grown = new double[months.length + extra];
+                System.arraycopy(months, 0, grown, extra, months.length);
+                months = grown;
+                baseMonth -= extra;
+            } else if (month >= baseMonth + months.length) {
+                months = Arrays.copyOf(months, Math.max(months.length * 2, month - baseMonth + 1));
+            }
+            months[month - baseMonth] += value;
+            firstMonth = Math.min(firstMonth, month);
+            lastMonth = Math.max(lastMonth, month);
+            lastDay = Math.max(lastDay, date.toEpochDay());
+
+            if (month != dayMonth) {
+                daily = false;
+            } else if (daily) {
+                days[date.getDayOfMonth() - 1] += value;
+            }
+        }
+
+        private void finish() {
+            if (months.length == 0) {
+                // No points: a single zero for the current month
+                daily = false;
+                keys = new long[] { LocalDate.now().withDayOfMonth(1).toEpochDay() };
+                values = new double[1];
+            } else if (daily) {
+                LocalDate last = LocalDate.ofEpochDay(lastDay);
+                long first = last.withDayOfMonth(1).toEpochDay();
+                keys = new long[last.getDayOfMonth()];
+                values = Arrays.copyOf(days, keys.length);
+                for (int day = 0; day < keys.length; day++) keys[day] = first + day;
+            } else {
+                keys = new long[lastMonth - firstMonth + 1];
+                values = Arrays.copyOfRange(months, firstMonth - baseMonth, lastMonth - baseMonth + 1);
+                LocalDate date = LocalDate.of(firstMonth / 12, firstMonth % 12 + 1, 1);
+                for (int month = 0; month < keys.length; month++, date = date.plusMonths(1)) keys[month] = date.toEpochDay();
+            }
+            minValue = Double.MAX_VALUE;
+            maxValue = -Double.MAX_VALUE;
+            for (double value : values) {
+                minValue = Math.min(minValue, value);
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+
+        private String label(long key, boolean withYear) {
+            LocalDate date = LocalDate.ofEpochDay(key);
+            return date.format(daily ? DAY_FORMAT : withYear ? MONTH_YEAR_FORMAT : MONTH_FORMAT);
+        }
+
+        // Index of the bucket shown under the label, or -1
+        int indexOf(String label, boolean withYear) {
+            for (int i = 0; i < keys.length; i++) {
+                if (label(keys[i], withYear).equals(label)) return i;
+            }
+            return -1;
+        }
+
+        // At most limit points, picked by LTTB from the raw buckets
+        List<XYChart.Data<String, Number>> toChartData(int limit, boolean withYear) {
+            int[] indexes = Downsampler.largestTriangleThreeBuckets(values, limit);
+            List<XYChart.Data<String, Number>> data = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                data.add(new XYChart.Data<>(label(keys[index], withYear), values[index]));
+            }
+            return data;
+        }
+    }
+
+    public static class ChartSeries {
         private final List<GraphDataPoint> dataPoints;
         private final String seriesName;
         private final Color color;
@@ -0,0 +1,57 @@
+package gui.components.chart.util;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of an evenly spaced series.
+ * <p>
+ * The first and last points are always kept. The points between are split into
+ * {@code threshold - 2} buckets, and from each bucket the point that forms the largest
+ * triangle with the point kept before it and the average of the next bucket is kept.
+ * Peaks and dips survive, which averaging or plain striding would flatten or skip.
+ */
+public class Downsampler {
+
+    // Indexes of the points to keep, ascending; every index when there are no more than threshold points
+    public static int[] largestTriangleThreeBuckets(double[] values, int threshold) {
+        int count = values.length;
+        if (threshold >= count || threshold < 3) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) all[i] = i;
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket, which for the last one is the final point
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += values[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = nextStart;
+            double largestArea = -1;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((previous - averageX) * (values[i] - values[previous])
+                        - (previous - i) * (averageY - values[previous]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    selected = i;
+                }
+            }
+            kept[bucket + 1] = selected;
+            previous = selected;
+        }
+        kept[threshold - 1] = count - 1;
+        return kept;
+    }
+}
@@ -0,0 +1,288 @@
+package gui.components.chart.util.hansolo;
+
+import gui.components.chart.util.hansolo.SmoothedChart.ChartType;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.XYChart.Data;
+import javafx.scene.chart.XYChart.Series;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Draws the series of a SmoothedChart into one Canvas instead of a Path per series and
+ * a node per data point.
+ * <p>
+ * Only what changed is repainted: each series remembers the pixels it drew and the
+ * area they covered, and a layout that leaves a series untouched leaves its pixels
+ * alone. When some series moved or changed color, the union of their old and new areas
+ * is cleared and every series crossing it is drawn again, clipped to it. Resizing, or
+ * switching smoothing or chart type, repaints everything.
+ * <p>
+ * Colors and stroke width are read from the series' (hidden) paths, so setSeriesColor
+ * and CSS apply as in node mode.
+ */
+class CanvasRenderer<X, Y> {
+    private static final double HIT_TOLERANCE = 6;
+
+    private final Canvas                           canvas = new Canvas();
+    private       Map<Series<X, Y>, SeriesLayer>   layers = new IdentityHashMap<>();
+    private       List<Series<X, Y>>               order  = new ArrayList<>();
+    private       boolean                          smoothed;
+    private       ChartType                        chartType;
+    private       int                              subDivisions;
+    private       boolean                          invalid = true;
+
+
+    // ******************** Methods *******************************************
+    Canvas getCanvas() { return canvas; }
+
+    // The next paint redraws everything
+    void invalidate() { invalid = true; }
+
+    /**
+     * Brings the canvas in line with the series. PATHS gives the fill ([0]) and stroke ([1])
+     * path of a series, or null while it has none.
+     */
+    void paint(final List<Series<X, Y>> SERIES, final Axis<X> X_AXIS, final Axis<Y> Y_AXIS, final double WIDTH, final double HEIGHT,
+               final boolean SMOOTHED, final ChartType CHART_TYPE, final int SUB_DIVISIONS, final PathLookup<X, Y> PATHS) {
+        boolean full = invalid || canvas.getWidth() != WIDTH || canvas.getHeight() != HEIGHT
+                       || smoothed != SMOOTHED || chartType != CHART_TYPE || subDivisions != SUB_DIVISIONS
+                       || layers.size() != SERIES.size();
+        canvas.setWidth(WIDTH);
+        canvas.setHeight(HEIGHT);
+        smoothed     = SMOOTHED;
+        chartType    = CHART_TYPE;
+        subDivisions = SUB_DIVISIONS;
+        invalid      = false;
+
+        // Dirty region as minX, minY, maxX, maxY
+        double[] dirty = { Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+        Map<Series<X, Y>, SeriesLayer> updated = new IdentityHashMap<>();
+        for (Series<X, Y> series : SERIES) {
+            SeriesLayer layer = layers.get(series);
+            if (null == layer) {
+                layer = new SeriesLayer();
+                full  = true;
+            }
+            Path[] paths = PATHS.getPaths(series);
+            if (layer.update(series, X_AXIS, Y_AXIS, paths, full)) {
+                layer.addBounds(dirty);
+                layer.layout(SMOOTHED, SUB_DIVISIONS, CHART_TYPE == ChartType.AREA ? HEIGHT : -Double.MAX_VALUE);
+                layer.addBounds(dirty);
+            }
+            updated.put(series, layer);
+        }
+        layers = updated;
+        order  = new ArrayList<>(SERIES);
+
+        if (full) {
+            dirty[0] = 0;
+            dirty[1] = 0;
+            dirty[2] = WIDTH;
+            dirty[3] = HEIGHT;
+        }
+        if (dirty[0] > dirty[2]) { return; }
+
+        GraphicsContext ctx = canvas.getGraphicsContext2D();
+        ctx.save();
+        ctx.beginPath();
+        ctx.rect(dirty[0], dirty[1], dirty[2] - dirty[0], dirty[3] - dirty[1]);
+        ctx.clip();
+        ctx.clearRect(dirty[0], dirty[1], dirty[2] - dirty[0], dirty[3] - dirty[1]);
+        for (Series<X, Y> series : SERIES) {
+            SeriesLayer layer = layers.get(series);
+            if (layer.intersects(dirty)) { layer.draw(ctx, CHART_TYPE, HEIGHT); }
+        }
+        ctx.restore();
+    }
+
+    /**
+     * The topmost series drawn at the given canvas coordinates, or null. For a line that is
+     * within a few pixels of its curve, for an area anywhere between its curve and the bottom.
+     */
+    Hit<X, Y> hitTest(final double X, final double Y) {
+        Hit<X, Y> hit = null;
+        for (Series<X, Y> series : order) {
+            SeriesLayer layer  = layers.get(series);
+            double      curveY = layer.curveY(X);
+            if (Double.isNaN(curveY)) { continue; }
+            double  tolerance = Math.max(HIT_TOLERANCE, layer.strokeWidth);
+            boolean inside    = ChartType.AREA == chartType ? Y >= curveY - tolerance : Math.abs(Y - curveY) <= tolerance;
+            // Later series are drawn on top
+            if (inside) { hit = new Hit<>(series, layer.nearestData(X), curveY); }
+        }
+        return hit;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    interface PathLookup<X, Y> {
+        Path[] getPaths(Series<X, Y> series);
+    }
+
+    static class Hit<X, Y> {
+        final Series<X, Y> series;
+        final int          dataIndex; // data item closest to the hit horizontally
+        final double       curveY;    // y of the drawn curve at the hit's x
+
+        Hit(final Series<X, Y> SERIES, final int DATA_INDEX, final double CURVE_Y) {
+            series    = SERIES;
+            dataIndex = DATA_INDEX;
+            curveY    = CURVE_Y;
+        }
+    }
+
+    // What one series drew: its data points in pixels, the curve through them, its paints and bounds
+    private static class SeriesLayer {
+        private double[] points  = new double[0]; // x, y pairs
+        private int[]    indexes = new int[0];    // data index of each point
+        private int      count;
+        private double[] scratch        = new double[0];
+        private int[]    scratchIndexes = new int[0];
+        private double[] curve = new double[0];   // x, y pairs, the points themselves when not smoothed
+        private int      curveCount;
+        private Paint    stroke;
+        private Paint    fill;
+        private double   strokeWidth;
+        private double   minX, minY, maxX, maxY;
+
+        // Reads the series' current pixels and paints; returns whether anything differs from the last paint
+        <X, Y> boolean update(final Series<X, Y> SERIES, final Axis<X> X_AXIS, final Axis<Y> Y_AXIS, final Path[] PATHS, final boolean FORCE) {
+            List<Data<X, Y>> data = SERIES.getData();
+            if (scratch.length < data.size() * 2) {
+                scratch        = new double[data.size() * 2];
+                scratchIndexes = new int[data.size()];
+            }
+            int n = 0;
+            for (int i = 0 ; i < data.size() ; i++) {
+                double x = X_AXIS.getDisplayPosition(data.get(i).getXValue());
+                double y = Y_AXIS.getDisplayPosition(data.get(i).getYValue());
+                if (Double.isNaN(x) || Double.isNaN(y)) { continue; }
+                scratch[n * 2]     = x;
+                scratch[n * 2 + 1] = y;
+                scratchIndexes[n]  = i;
+                n++;
+            }
+            Paint  newStroke      = null == PATHS ? null : PATHS[1].getStroke();
+            Paint  newFill        = null == PATHS ? null : PATHS[0].getFill();
+            double newStrokeWidth = null == PATHS ? 1 : PATHS[1].getStrokeWidth();
+            boolean changed = FORCE || n != count
+                              || !Arrays.equals(scratch, 0, n * 2, points, 0, n * 2)
+                              || !Objects.equals(newStroke, stroke) || !Objects.equals(newFill, fill) || newStrokeWidth != strokeWidth;
+            if (!changed) { return false; }
+
+            double[] swap = points;
+            points  = scratch;
+            scratch = swap;
+            int[] swapIndexes = indexes;
+            indexes        = scratchIndexes;
+            scratchIndexes = swapIndexes;
+            count       = n;
+            stroke      = newStroke;
+            fill        = newFill;
+            strokeWidth = newStrokeWidth;
+            return true;
+        }
+
+        // Builds the curve and its bounds; BOTTOM is where an area's fill ends
+        void layout(final boolean SMOOTHED, final int SUB_DIVISIONS, final double BOTTOM) {
+            if (SMOOTHED) {
+                curve      = CatmullRom.subdivide(points, count, SUB_DIVISIONS, curve);
+                curveCount = count < 2 ? count : (count - 1) * SUB_DIVISIONS + 1;
+            } else {
+                if (curve.length < count * 2) { curve = new double[count * 2]; }
+                System.arraycopy(points, 0, curve, 0, count * 2);
+                curveCount = count;
+            }
+            minX = minY = Double.MAX_VALUE;
+            maxX = maxY = -Double.MAX_VALUE;
+            for (int i = 0 ; i < curveCount ; i++) {
+                minX = Math.min(minX, curve[i * 2]);
+                maxX = Math.max(maxX, curve[i * 2]);
+                minY = Math.min(minY, curve[i * 2 + 1]);
+                maxY = Math.max(maxY, curve[i * 2 + 1]);
+            }
+            if (curveCount == 0) { return; }
+            maxY = Math.max(maxY, BOTTOM);
+            // Room for the stroke and its antialiasing
+            double margin = strokeWidth / 2 + 1;
+            minX -= margin;
+            minY -= margin;
+            maxX += margin;
+            maxY += margin;
+        }
+
+        void addBounds(final double[] REGION) {
+            if (curveCount == 0) { return; }
+            REGION[0] = Math.min(REGION[0], minX);
+            REGION[1] = Math.min(REGION[1], minY);
+            REGION[2] = Math.max(REGION[2], maxX);
+            REGION[3] = Math.max(REGION[3], maxY);
+        }
+
+        boolean intersects(final double[] REGION) {
+            return curveCount > 0 && minX <= REGION[2] && maxX >= REGION[0] && minY <= REGION[3] && maxY >= REGION[1];
+        }
+
+        void draw(final GraphicsContext CTX, final ChartType CHART_TYPE, final double HEIGHT) {
+            if (curveCount == 0) { return; }
+            if (ChartType.AREA == CHART_TYPE && null != fill) {
+                CTX.setFill(fill);
+                CTX.beginPath();
+                CTX.moveTo(curve[0], HEIGHT);
+                for (int i = 0 ; i < curveCount ; i++) { CTX.lineTo(curve[i * 2], curve[i * 2 + 1]); }
+                CTX.lineTo(curve[(curveCount - 1) * 2], HEIGHT);
+                CTX.closePath();
+                CTX.fill();
+            }
+            if (null != stroke) {
+                CTX.setStroke(stroke);
+                CTX.setLineWidth(strokeWidth);
+                CTX.beginPath();
+                CTX.moveTo(curve[0], curve[1]);
+                for (int i = 1 ; i < curveCount ; i++) { CTX.lineTo(curve[i * 2], curve[i * 2 + 1]); }
+                CTX.stroke();
+            }
+        }
+
+        // y of the curve at x, interpolated between its points; NaN outside it
+        double curveY(final double X) {
+            if (curveCount < 2 || X < curve[0] || X > curve[(curveCount - 1) * 2]) { return Double.NaN; }
+            int i = search(curve, curveCount, X);
+            if (i == curveCount - 1) { return curve[i * 2 + 1]; }
+            double x0 = curve[i * 2], y0 = curve[i * 2 + 1];
+            double x1 = curve[i * 2 + 2], y1 = curve[i * 2 + 3];
+            return x1 == x0 ? y0 : y0 + (y1 - y0) * (X - x0) / (x1 - x0);
+        }
+
+        int nearestData(final double X) {
+            int i = search(points, count, X);
+            if (i + 1 < count && Math.abs(points[(i + 1) * 2] - X) < Math.abs(points[i * 2] - X)) { i++; }
+            return indexes[i];
+        }
+
+        // Last point at or left of X (0 if none), by binary search on the ascending x values
+        private static int search(final double[] XY, final int COUNT, final double X) {
+            int low  = 0;
+            int high = COUNT - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (XY[mid * 2] <= X) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -44,6 +44,45 @@ public class CatmullRom {
     // ******************** Methods *******************************************
     public Point2D q(final double T) { return new Point2D(splineXValues.q(T), splineYValues.q(T)); }
 
+    /**
+     * Same curve as Helper.subdividePoints, on primitive coordinates and without allocating
+     * per point. POINTS holds COUNT points as x, y pairs; the (COUNT - 1) * SUB_DIVISIONS + 1
+     * subdivided points are written to OUT as x, y pairs. OUT is reused when it is large enough,
+     * otherwise a larger array is returned in its place.
+     */
+    public static double[] subdivide(final double[] POINTS, final int COUNT, final int SUB_DIVISIONS, final double[] OUT) {
+        int      noOfSubdivided = COUNT < 2 ? COUNT : (COUNT - 1) * SUB_DIVISIONS + 1;
+        double[] out            = OUT.length >= noOfSubdivided * 2 ? OUT : new double[noOfSubdivided * 2];
+        if (COUNT < 2) {
+            System.arraycopy(POINTS, 0, out, 0, COUNT * 2);
+            return out;
+        }
+
+        double increments = 1.0 / (double) SUB_DIVISIONS;
+        for (int i = 0 ; i < COUNT - 1 ; i++) {
+            int p0 = i == 0 ? i : i - 1;
+            int p3 = (i + 2 == COUNT) ? i + 1 : i + 2;
+            int offset = i * SUB_DIVISIONS * 2;
+            for (int axis = 0 ; axis < 2 ; axis++) {
+                double v0 = POINTS[p0 * 2 + axis];
+                double v1 = POINTS[i * 2 + axis];
+                double v2 = POINTS[(i + 1) * 2 + axis];
+                double v3 = POINTS[p3 * 2 + axis];
+                double b  = v2 - v0;
+                double c  = 2 * v0 - 5 * v1 + 4 * v2 - v3;
+                double d  = 3 * v1 - v0 - 3 * v2 + v3;
+                double minValue = Math.min(v1, v2);
+                double maxValue = Math.max(v1, v2);
+                for (int j = 0 ; j <= SUB_DIVISIONS ; j++) {
+                    double t            = j * increments;
+                    double interpolated = 0.5 * ((2 * v1) + b * t + c * t * t + d * t * t * t);
+                    out[offset + j * 2 + axis] = Math.max(minValue, Math.min(interpolated, maxValue));
+                }
+            }
+        }
+        return out;
+    }
+
 
     // ******************** Inner Classes *************************************
     class CatmullRomSpline {
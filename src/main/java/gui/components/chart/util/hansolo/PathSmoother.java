@@ -0,0 +1,103 @@
+package gui.components.chart.util.hansolo;
+
+import javafx.collections.ObservableList;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Turns the straight stroke and fill paths of one series into Catmull-Rom curves.
+ * <p>
+ * Keeps its coordinate buffers and path elements between layouts: each call writes the
+ * new coordinates into the elements of the previous one and only creates elements when
+ * the curve has grown. The chart lays out on every resize, so this keeps resizing from
+ * allocating a few objects per subdivided point.
+ */
+public class PathSmoother {
+    private       double[]          points       = new double[0]; // data points as x, y pairs
+    private       double[]          smoothed     = new double[0]; // subdivided points as x, y pairs
+    private final List<LineTo>      strokeLines  = new ArrayList<>();
+    private final List<LineTo>      fillLines    = new ArrayList<>();
+    private final List<PathElement> strokeBuffer = new ArrayList<>();
+    private final List<PathElement> fillBuffer   = new ArrayList<>();
+    private final MoveTo            strokeStart  = new MoveTo();
+    private final MoveTo            fillStart    = new MoveTo();
+    private final LineTo            fillRight    = new LineTo();
+    private final LineTo            fillLeft     = new LineTo();
+    private final ClosePath         fillClose    = new ClosePath();
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Replaces the elements of the stroke path, as laid out by the chart, with the smoothed
+     * curve, and the fill path with the area between the curve and HEIGHT.
+     */
+    public void smooth(final ObservableList<PathElement> STROKE_ELEMENTS, final ObservableList<PathElement> FILL_ELEMENTS, final double HEIGHT, final int SUB_DIVISIONS) {
+        if (FILL_ELEMENTS.isEmpty()) { return; }
+
+        // as we do not have direct access to the data, first recreate the list of all the data points we have
+        if (points.length < STROKE_ELEMENTS.size() * 2) { points = new double[STROKE_ELEMENTS.size() * 2]; }
+        int noOfPoints = 0;
+        for (PathElement element : STROKE_ELEMENTS) {
+            if (element instanceof MoveTo) {
+                points[noOfPoints * 2]     = ((MoveTo) element).getX();
+                points[noOfPoints * 2 + 1] = ((MoveTo) element).getY();
+                noOfPoints++;
+            } else if (element instanceof LineTo) {
+                points[noOfPoints * 2]     = ((LineTo) element).getX();
+                points[noOfPoints * 2 + 1] = ((LineTo) element).getY();
+                noOfPoints++;
+            }
+        }
+        if (noOfPoints == 0) { return; }
+        double firstX = points[0];
+        double lastX  = points[(noOfPoints - 1) * 2];
+
+        smoothed = CatmullRom.subdivide(points, noOfPoints, SUB_DIVISIONS, smoothed);
+        int noOfSmoothed = noOfPoints < 2 ? noOfPoints : (noOfPoints - 1) * SUB_DIVISIONS + 1;
+
+        fillStart.setX(firstX);
+        fillStart.setY(HEIGHT);
+        fillBuffer.clear();
+        fillBuffer.add(fillStart);
+
+        strokeStart.setX(smoothed[0]);
+        strokeStart.setY(smoothed[1]);
+        strokeBuffer.clear();
+        strokeBuffer.add(strokeStart);
+
+        int noOfLines = 0;
+        for (int i = 0 ; i < noOfSmoothed ; i++) {
+            double x = smoothed[i * 2];
+            double y = smoothed[i * 2 + 1];
+            if (Double.compare(x, firstX) < 0) { continue; }
+            fillBuffer.add(lineTo(fillLines, noOfLines, x, y));
+            strokeBuffer.add(lineTo(strokeLines, noOfLines, x, y));
+            noOfLines++;
+        }
+
+        fillRight.setX(lastX);
+        fillRight.setY(HEIGHT);
+        fillLeft.setX(0);
+        fillLeft.setY(HEIGHT);
+        fillBuffer.add(fillRight);
+        fillBuffer.add(fillLeft);
+        fillBuffer.add(fillClose);
+
+        FILL_ELEMENTS.setAll(fillBuffer);
+        STROKE_ELEMENTS.setAll(strokeBuffer);
+    }
+
+    private static LineTo lineTo(final List<LineTo> LINES, final int INDEX, final double X, final double Y) {
+        if (INDEX == LINES.size()) { LINES.add(new LineTo()); }
+        LineTo line = LINES.get(INDEX);
+        line.setX(X);
+        line.setY(Y);
+        return line;
+    }
+}
@@ -58,7 +58,6 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Circle;
-import javafx.scene.shape.ClosePath;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
@@ -69,6 +68,9 @@ import javafx.util.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 
@@ -80,6 +82,7 @@ import java.util.stream.Collectors;
 public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     public static final Background TRANSPARENT_BACKGROUND = new Background(new BackgroundFill(Color.TRANSPARENT, CornerRadii.EMPTY, Insets.EMPTY));
     public enum ChartType { AREA, LINE }
+    public enum RenderMode { AUTO, NODES, CANVAS }
     private static final int                              MAX_SUBDIVISIONS = 64;
     private static final int                              MAX_DECIMALS     = 10;
     private              boolean                          _smoothed;
@@ -109,6 +112,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              List<Path>                       strokePaths;
     private              boolean                          _interactive;
     private              BooleanProperty                  interactive;
+    private              BiFunction<Series<X, Y>, X, String> selectionText;
     private              double                           _tooltipTimeout;
     private              DoubleProperty                   tooltipTimeout;
     private              Path                             horizontalGridLines;
@@ -118,6 +122,14 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     private              EventHandler<MouseEvent>         clickHandler;
     private              EventHandler<ActionEvent>        endOfTransformationHandler;
     private              ListChangeListener<Series<X, Y>> seriesListener;
+    private              Map<Path, PathSmoother>          smoothers;
+    private              Map<Series<X, Y>, Background>    symbolBackgrounds;
+    private              RenderMode                       _renderMode;
+    private              ObjectProperty<RenderMode>       renderMode;
+    private              int                              _canvasThreshold;
+    private              IntegerProperty                  canvasThreshold;
+    private              CanvasRenderer<X, Y>             canvasRenderer;
+    private              boolean                          canvasMode;
 
 
     // ******************** Constructors **************************************
@@ -147,9 +159,15 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         _decimals                  = 2;
         _interactive               = false;
         _tooltipTimeout            = 2000;
+        _renderMode                = RenderMode.AUTO;
+        _canvasThreshold           = 2000;
         formatString               = "%.2f";
         strokePaths                = new ArrayList<>();
+        smoothers                  = new WeakHashMap<>();
+        symbolBackgrounds          = new WeakHashMap<>();
         clickHandler               = e -> select(e);
+        canvasRenderer             = new CanvasRenderer<>();
+        canvasRenderer.getCanvas().addEventHandler(MouseEvent.MOUSE_PRESSED, clickHandler);
         endOfTransformationHandler = e -> selectorTooltip.hide();
         seriesListener             = change -> {
             while (change.next()) {
@@ -430,6 +448,13 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return interactive;
     }
 
+    /**
+     * Text of the selection tooltip, given the selected series and the x value under the
+     * selection. A null function, or a null result, shows the value of the curve.
+     */
+    public BiFunction<Series<X, Y>, X, String> getSelectionText() { return selectionText; }
+    public void setSelectionText(final BiFunction<Series<X, Y>, X, String> SELECTION_TEXT) { selectionText = SELECTION_TEXT; }
+
     public double getTooltipTimeout() { return null == tooltipTimeout ? _tooltipTimeout : tooltipTimeout.get(); }
     public void setTooltipTimeout(final double TIMEOUT) {
         if (null == tooltipTimeout) {
@@ -455,6 +480,55 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         return tooltipTimeout;
     }
 
+    /**
+     * NODES draws each series as paths with a node per data point, CANVAS draws all series
+     * into one canvas (no symbols), AUTO uses the canvas once the chart holds more data
+     * points than the canvas threshold.
+     */
+    public RenderMode getRenderMode() { return null == renderMode ? _renderMode : renderMode.get(); }
+    public void setRenderMode(final RenderMode MODE) {
+        if (null == renderMode) {
+            _renderMode = MODE;
+            layoutPlotChildren();
+        } else {
+            renderMode.set(MODE);
+        }
+    }
+    public ObjectProperty<RenderMode> renderModeProperty() {
+        if (null == renderMode) {
+            renderMode = new ObjectPropertyBase<RenderMode>(_renderMode) {
+                @Override protected void invalidated() { layoutPlotChildren(); }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "renderMode"; }
+            };
+            _renderMode = null;
+        }
+        return renderMode;
+    }
+
+    public int getCanvasThreshold() { return null == canvasThreshold ? _canvasThreshold : canvasThreshold.get(); }
+    public void setCanvasThreshold(final int THRESHOLD) {
+        if (null == canvasThreshold) {
+            _canvasThreshold = Math.max(0, THRESHOLD);
+            layoutPlotChildren();
+        } else {
+            canvasThreshold.set(THRESHOLD);
+        }
+    }
+    public IntegerProperty canvasThresholdProperty() {
+        if (null == canvasThreshold) {
+            canvasThreshold = new IntegerPropertyBase(_canvasThreshold) {
+                @Override protected void invalidated() {
+                    set(Math.max(0, get()));
+                    layoutPlotChildren();
+                }
+                @Override public Object getBean() { return SmoothedChart.this; }
+                @Override public String getName() { return "canvasThreshold"; }
+            };
+        }
+        return canvasThreshold;
+    }
+
     public void setSymbolsVisible(final XYChart.Series<X, Y> SERIES, final boolean VISIBLE) {
         if (!getData().contains(SERIES)) { return; }
         for (XYChart.Data<X, Y> data : SERIES.getData()) {
@@ -489,6 +563,8 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         if (null != STROKE) { ((Path) ((Group) SERIES.getNode()).getChildren().get(1)).setStroke(STROKE); }
         if (null != SYMBOL_BACKGROUND) { setSymbolFill(SERIES, SYMBOL_BACKGROUND); }
         if (null != LEGEND_SYMBOL_FILL) { setLegendSymbolFill(SERIES, LEGEND_SYMBOL_FILL); }
+        // The canvas reads the paths' paints when it paints
+        if (canvasMode) { layoutPlotChildren(); }
     }
 
     public Dimension2D getSymbolSize(final Series<X, Y> SERIES) {
@@ -517,6 +593,7 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
     public void setSymbolFill(final Series<X, Y> SERIES, final Background SYMBOL_BACKGROUND) {
         if (!getData().contains(SERIES)) { return; }
+        symbolBackgrounds.put(SERIES, SYMBOL_BACKGROUND);
         for (XYChart.Data<X, Y> data : SERIES.getData()) {
             StackPane stackPane = (StackPane) data.getNode();
             if (null == stackPane) { continue; }
@@ -711,18 +788,67 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
     }
 
     @Override protected void layoutPlotChildren() {
+        updateRenderMode();
+        if (canvasMode) {
+            paintCanvas();
+            return;
+        }
         super.layoutPlotChildren();
 
         double height = getLayoutBounds().getHeight();
         getData().forEach(series -> {
             final Path[] paths = getPaths(series);
             if (null == paths) { return; }
-            if (isSmoothed()) { smooth(paths[1].getElements(), paths[0].getElements(), height); }
+            if (isSmoothed()) {
+                smoothers.computeIfAbsent(paths[1], path -> new PathSmoother())
+                         .smooth(paths[1].getElements(), paths[0].getElements(), height, getSubDivisions());
+            }
             paths[0].setVisible(ChartType.AREA == getChartType());
             paths[0].setManaged(ChartType.AREA == getChartType());
         });
     }
 
+    // Moves the series between their paths and the canvas when the render mode or the number of points asks for it
+    private void updateRenderMode() {
+        final boolean CANVAS;
+        switch (getRenderMode()) {
+            case CANVAS: CANVAS = true; break;
+            case NODES : CANVAS = false; break;
+            default    : CANVAS = getData().stream().mapToInt(series -> series.getData().size()).sum() > getCanvasThreshold(); break;
+        }
+        if (CANVAS == canvasMode) { return; }
+
+        canvasMode = CANVAS;
+        setCreateSymbols(!CANVAS);
+        getData().forEach(series -> {
+            final Path[] paths = getPaths(series);
+            if (null == paths) { return; }
+            paths[1].setVisible(!CANVAS);
+        });
+        if (CANVAS) {
+            canvasRenderer.invalidate();
+            getPlotChildren().add(canvasRenderer.getCanvas());
+        } else {
+            getPlotChildren().remove(canvasRenderer.getCanvas());
+            // The symbols were just created with the default style; give them their series' fill again
+            getData().forEach(series -> {
+                final Background background = symbolBackgrounds.get(series);
+                if (null != background) { setSymbolFill(series, background); }
+            });
+        }
+    }
+
+    private void paintCanvas() {
+        getData().forEach(series -> {
+            final Path[] paths = getPaths(series);
+            if (null == paths) { return; }
+            paths[0].setVisible(false);
+            paths[1].setVisible(false);
+        });
+        canvasRenderer.paint(getData(), getXAxis(), getYAxis(), getXAxis().getWidth(), getYAxis().getHeight(),
+                             isSmoothed(), getChartType(), getSubDivisions(), this::getPaths);
+    }
+
     /**
      * Returns an array of paths where the first entry represents the fill path
      * and the second entry represents the stroke path
@@ -751,6 +877,10 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
 
     private void select(final MouseEvent EVT) {
         if (!isInteractive()) { return; }
+        if (canvasMode) {
+            selectOnCanvas(EVT);
+            return;
+        }
 
         final double EVENT_X      = EVT.getX();
         final double EVENT_Y      = EVT.getY();
@@ -800,19 +930,8 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
             if (!(selectedYValue instanceof Number)) { return; }
             double selectedValue = ((Number) selectedYValue).doubleValue();
 
-            selector.setCenterX(pathMinX + CHART_X + interval * selectedIndex);
-            selector.setCenterY((CHART_MIN_Y + CHART_HEIGHT) - (selectedValue * reverseFactor));
-            selector.setVisible(true);
-            fadeInFadeOut.playFrom(Duration.millis(0));
-
-            Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
-            String  tooltipText     = selectedData.getXValue().toString() + "\n" + selectedData.getYValue();
-            selectorTooltip.setText(tooltipText);
-            selectorTooltip.setX(tooltipLocation.getX());
-            selectorTooltip.setY(tooltipLocation.getY());
-            selectorTooltip.show(getScene().getWindow());
-
-            fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
+            showSelection(pathMinX + CHART_X + interval * selectedIndex, (CHART_MIN_Y + CHART_HEIGHT) - (selectedValue * reverseFactor),
+                          selectionText(series, selectedData.getXValue(), selectedData.getXValue().toString() + "\n" + selectedData.getYValue()), selectedValue);
         } else {
             for (int i = 1; i < noOfElements; i++) {
                 PathElement element = elements.get(i);
@@ -828,19 +947,8 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
                     double y             = m * (EVT.getX() - xy[0]) + xy[1];
                     double selectedValue = ((getYAxis().getLayoutBounds().getHeight() - y) * factor + lowerBound);
 
-                    selector.setCenterX(CHART_X + EVT.getX());
-                    selector.setCenterY(CHART_MIN_Y + y);
-                    selector.setVisible(true);
-                    fadeInFadeOut.playFrom(Duration.millis(0));
-
-                    Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
-                    String  tooltipText     = String.format(Locale.US, formatString, selectedValue);
-                    selectorTooltip.setText(tooltipText);
-                    selectorTooltip.setX(tooltipLocation.getX());
-                    selectorTooltip.setY(tooltipLocation.getY());
-                    selectorTooltip.show(getScene().getWindow());
-
-                    fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, selectedValue));
+                    showSelection(CHART_X + EVT.getX(), CHART_MIN_Y + y,
+                                  selectionText(series, getXAxis().getValueForDisplay(EVT.getX()), String.format(Locale.US, formatString, selectedValue)), selectedValue);
                     break;
                 }
                 lastElement = element;
@@ -848,42 +956,47 @@ public class SmoothedChart<X, Y> extends AreaChart<X, Y> {
         }
     }
 
-    private void smooth(ObservableList<PathElement> strokeElements, ObservableList<PathElement> fillElements, final double HEIGHT) {
-        if (fillElements.isEmpty()) return;
-        // as we do not have direct access to the data, first recreate the list of all the data points we have
-        final Point2D[] dataPoints = new Point2D[strokeElements.size()];
-        for (int i = 0; i < strokeElements.size(); i++) {
-            final PathElement element = strokeElements.get(i);
-            if (element instanceof MoveTo) {
-                final MoveTo move = (MoveTo) element;
-                dataPoints[i] = new Point2D(move.getX(), move.getY());
-            } else if (element instanceof LineTo) {
-                final LineTo line = (LineTo) element;
-                final double x = line.getX(), y = line.getY();
-                dataPoints[i] = new Point2D(x, y);
-            }
-        }
-        double firstX = dataPoints[0].getX();
-        double lastX  = dataPoints[dataPoints.length - 1].getX();
+    // Same selection on the canvas, hit-tested against the curves it drew
+    private void selectOnCanvas(final MouseEvent EVT) {
+        if (!(getYAxis() instanceof NumberAxis)) { return; }
 
-        Point2D[] points = Helper.subdividePoints(dataPoints, getSubDivisions());
+        CanvasRenderer.Hit<X, Y> hit = canvasRenderer.hitTest(EVT.getX(), EVT.getY());
+        if (null == hit) { return; }
 
-        fillElements.clear();
-        fillElements.add(new MoveTo(firstX, HEIGHT));
+        final double CHART_X     = chartPlotBackground.getBoundsInParent().getMinX();
+        final double CHART_MIN_Y = chartPlotBackground.getBoundsInParent().getMinY();
+        if (isSnapToTicks()) {
+            Data<X, Y> selectedData   = hit.series.getData().get(hit.dataIndex);
+            Y          selectedYValue = selectedData.getYValue();
+            if (!(selectedYValue instanceof Number)) { return; }
+            showSelection(CHART_X + getXAxis().getDisplayPosition(selectedData.getXValue()), CHART_MIN_Y + getYAxis().getDisplayPosition(selectedYValue),
+                          selectionText(hit.series, selectedData.getXValue(), selectedData.getXValue().toString() + "\n" + selectedYValue), ((Number) selectedYValue).doubleValue());
+        } else {
+            double selectedValue = ((NumberAxis) getYAxis()).getValueForDisplay(hit.curveY).doubleValue();
+            showSelection(CHART_X + EVT.getX(), CHART_MIN_Y + hit.curveY,
+                          selectionText(hit.series, getXAxis().getValueForDisplay(EVT.getX()), String.format(Locale.US, formatString, selectedValue)), selectedValue);
+        }
+    }
 
-        strokeElements.clear();
-        strokeElements.add(new MoveTo(points[0].getX(), points[0].getY()));
+    private String selectionText(final Series<X, Y> SERIES, final X X_VALUE, final String DEFAULT_TEXT) {
+        if (null == selectionText || null == X_VALUE) { return DEFAULT_TEXT; }
+        String text = selectionText.apply(SERIES, X_VALUE);
+        return null == text ? DEFAULT_TEXT : text;
+    }
 
-        for (Point2D p : points) {
-            if (Double.compare(p.getX(), firstX) >= 0) {
-                fillElements.add(new LineTo(p.getX(), p.getY()));
-                strokeElements.add(new LineTo(p.getX(), p.getY()));
-            }
-        }
+    private void showSelection(final double CENTER_X, final double CENTER_Y, final String TEXT, final double VALUE) {
+        selector.setCenterX(CENTER_X);
+        selector.setCenterY(CENTER_Y);
+        selector.setVisible(true);
+        fadeInFadeOut.playFrom(Duration.millis(0));
+
+        Point2D tooltipLocation = selector.localToScreen(selector.getCenterX(), selector.getCenterY());
+        selectorTooltip.setText(TEXT);
+        selectorTooltip.setX(tooltipLocation.getX());
+        selectorTooltip.setY(tooltipLocation.getY());
+        selectorTooltip.show(getScene().getWindow());
 
-        fillElements.add(new LineTo(lastX, HEIGHT));
-        fillElements.add(new LineTo(0, HEIGHT));
-        fillElements.add(new ClosePath());
+        fireEvent(new SmoothedChartEvent(SmoothedChart.this, null, SmoothedChartEvent.DATA_SELECTED, VALUE));
     }
 
     private double[] getXYFromPathElement(final PathElement ELEMENT) {
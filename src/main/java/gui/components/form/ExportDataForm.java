@@ -3,6 +3,7 @@ package gui.components.form;
 import gui.app.App;
 import gui.components.util.ErrorModal;
 import gui.components.util.Modal;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -12,12 +13,9 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import server.model.Account;
 import server.model.Category;
-import server.model.Transaction;
-import server.service.TransactionService;
 import server.filter.*;
+import server.io.CsvTransactionExporter;
 
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.io.File;
@@ -119,8 +117,6 @@ public class ExportDataForm extends VBox {
     private void exportData() {
         try {
             List<TransactionFilterStrategy> filters = new ArrayList<>();
-            TransactionService transactionService = new TransactionService();
-            List<Transaction> transactions = transactionService.getAllTransactions();
 
             if (dateCheckBox.isSelected()) {
                 if (fromDate.getValue() == null || toDate.getValue() == null) {
@@ -161,10 +157,6 @@ public class ExportDataForm extends VBox {
                 filters.add(new NoteFilterStrategy(noteField.getText()));
             }
 
-            TransactionFilter transactionFilter = new TransactionFilter(transactions);
-            filters.forEach(transactionFilter::addFilterStrategy);
-            List<Transaction> filteredTransactions = transactionFilter.applyFilters();
-
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle("Save CSV");
             fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
@@ -172,24 +164,26 @@ public class ExportDataForm extends VBox {
 
             File file = fileChooser.showSaveDialog(null);
             if (file != null) {
-                saveToCsv(file.getAbsolutePath(), filteredTransactions);
-                modal.close(); // Close modal after successful export
+                saveToCsv(file, filters);
+                modal.close(); // Close modal; the export finishes in the background
             }
         } catch (Exception e) {
             new ErrorModal("Error: " + e.getMessage()).show();
         }
     }
 
-    private void saveToCsv(String filePath, List<Transaction> transactions) {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write("Date,Type,Amount,Source Account,Destination Account,Category,Note\n");
-            for (Transaction t : transactions) {
-                writer.write(String.format("%s,%s,%f,%s,%s,%s,%s\n",
-                        t.getDateTime(), t.getType(), t.getAmount(), t.getSourceAccountName(),
-                        t.getDestinationAccountName(), t.getCategoryName(), t.getNote()));
+    // Streams the export on a background thread and reports its throughput when done
+    private void saveToCsv(File file, List<TransactionFilterStrategy> filters) {
+        Thread exportThread = new Thread(() -> {
+            try {
+                CsvTransactionExporter.ExportResult result = new CsvTransactionExporter().export(file.toPath(), filters);
+                Platform.runLater(() -> new Alert(Alert.AlertType.INFORMATION, result.toString()).show());
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> new ErrorModal("Failed to save file: " + e.getMessage()).show());
             }
-        } catch (IOException e) {
-            new ErrorModal("Failed to save file: " + e.getMessage()).show();
-        }
+        }, "csv-export");
+        exportThread.setDaemon(true);
+        exportThread.start();
     }
 }
@@ -0,0 +1,231 @@
+package gui.components.form;
+
+import gui.app.App;
+import gui.components.util.ErrorModal;
+import gui.components.util.Modal;
+import gui.pages.OverviewPage;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import server.io.CsvColumnMapping;
+import server.io.CsvTransactionImporter;
+import server.model.Account;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ImportDataForm extends VBox {
+    private static final String NOT_MAPPED = "(none)";
+
+    private final Modal modal;
+    private final Runnable onImported;
+    private File file;
+    private Label fileLabel, statusLabel;
+    private ComboBox<String> dateColumn, typeColumn, amountColumn, sourceAccountColumn,
+            destinationAccountColumn, categoryColumn, noteColumn;
+    private ComboBox<Account> defaultAccountComboBox;
+    private TextField dateFormatField;
+    private ProgressBar progressBar;
+    private Button importButton, cancelButton;
+    private Thread importThread;
+
+    public ImportDataForm(Modal modal, Runnable onImported) {
+        this.modal = modal;
+        this.onImported = onImported;
+        setupForm();
+    }
+
+    private void setupForm() {
+        setSpacing(20);
+
+        Label titleLabel = new Label("Import Data");
+        titleLabel.getStyleClass().add("header1");
+
+        Button chooseButton = new Button("Choose CSV...");
+        chooseButton.getStyleClass().addAll("border-neutral", "fill-neutral");
+        chooseButton.setOnAction(e -> chooseFile());
+        fileLabel = new Label("No file selected");
+        HBox fileRow = new HBox(10, chooseButton, fileLabel);
+        fileRow.setAlignment(Pos.CENTER_LEFT);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(15);
+        grid.setPadding(new Insets(10));
+
+        dateColumn = createColumnComboBox();
+        typeColumn = createColumnComboBox();
+        amountColumn = createColumnComboBox();
+        sourceAccountColumn = createColumnComboBox();
+        destinationAccountColumn = createColumnComboBox();
+        categoryColumn = createColumnComboBox();
+        noteColumn = createColumnComboBox();
+
+        defaultAccountComboBox = new ComboBox<>();
+        defaultAccountComboBox.getItems().addAll(App.getInstance().getAccountList());
+
+        dateFormatField = new TextField();
+        dateFormatField.setPromptText("ISO, e.g. 2024-03-01");
+        dateFormatField.getStyleClass().add("input-field");
+
+        grid.addRow(0, new Label("Date:"), dateColumn, new Label("Date format:"), dateFormatField);
+        grid.addRow(1, new Label("Amount:"), amountColumn, new Label("Type:"), typeColumn);
+        grid.addRow(2, new Label("Account:"), sourceAccountColumn, new Label("Default account:"), defaultAccountComboBox);
+        grid.addRow(3, new Label("Destination:"), destinationAccountColumn, new Label("Category:"), categoryColumn);
+        grid.addRow(4, new Label("Note:"), noteColumn);
+
+        progressBar = new ProgressBar(0);
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.setVisible(false);
+        statusLabel = new Label();
+
+        cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(e -> cancel());
+        cancelButton.getStyleClass().addAll("border-neutral", "fill-neutral");
+
+        importButton = new Button("Import");
+        importButton.setDisable(true);
+        importButton.setOnAction(e -> importData());
+        importButton.getStyleClass().addAll("border-blue", "fill-blue");
+
+        HBox buttonBox = new HBox(10, cancelButton, importButton);
+        buttonBox.setAlignment(Pos.CENTER);
+
+        getChildren().addAll(titleLabel, fileRow, grid, progressBar, statusLabel, buttonBox);
+        setAlignment(Pos.CENTER);
+    }
+
+    private ComboBox<String> createColumnComboBox() {
+        ComboBox<String> comboBox = new ComboBox<>();
+        comboBox.getItems().add(NOT_MAPPED);
+        comboBox.setValue(NOT_MAPPED);
+        return comboBox;
+    }
+
+    private void chooseFile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File chosen = fileChooser.showOpenDialog(getScene().getWindow());
+        if (chosen == null) return;
+
+        try {
+            String[] header = CsvTransactionImporter.readHeader(chosen.toPath(), ',');
+            file = chosen;
+            fileLabel.setText(chosen.getName());
+            applyHeader(header, CsvColumnMapping.fromHeader(header));
+            importButton.setDisable(false);
+        } catch (IOException e) {
+            new ErrorModal("Failed to read file: " + e.getMessage()).show();
+        }
+    }
+
+    // Lists the file's columns in every selector and preselects the ones recognised by name
+    private void applyHeader(String[] header, CsvColumnMapping guess) {
+        List<String> columns = new ArrayList<>();
+        columns.add(NOT_MAPPED);
+        columns.addAll(Arrays.asList(header));
+        selectColumn(dateColumn, columns, guess.getDateColumn());
+        selectColumn(typeColumn, columns, guess.getTypeColumn());
+        selectColumn(amountColumn, columns, guess.getAmountColumn());
+        selectColumn(sourceAccountColumn, columns, guess.getSourceAccountColumn());
+        selectColumn(destinationAccountColumn, columns, guess.getDestinationAccountColumn());
+        selectColumn(categoryColumn, columns, guess.getCategoryColumn());
+        selectColumn(noteColumn, columns, guess.getNoteColumn());
+    }
+
+    private void selectColumn(ComboBox<String> comboBox, List<String> columns, int index) {
+        comboBox.getItems().setAll(columns);
+        comboBox.getSelectionModel().select(index + 1);
+    }
+
+    // The combo box index is the column index shifted by the leading "(none)" entry
+    private int columnOf(ComboBox<String> comboBox) {
+        return comboBox.getSelectionModel().getSelectedIndex() - 1;
+    }
+
+    private CsvColumnMapping createMapping() {
+        CsvColumnMapping mapping = new CsvColumnMapping();
+        mapping.setDateColumn(columnOf(dateColumn));
+        mapping.setTypeColumn(columnOf(typeColumn));
+        mapping.setAmountColumn(columnOf(amountColumn));
+        mapping.setSourceAccountColumn(columnOf(sourceAccountColumn));
+        mapping.setDestinationAccountColumn(columnOf(destinationAccountColumn));
+        mapping.setCategoryColumn(columnOf(categoryColumn));
+        mapping.setNoteColumn(columnOf(noteColumn));
+        if (defaultAccountComboBox.getValue() != null) {
+            mapping.setDefaultSourceAccount(defaultAccountComboBox.getValue().getName());
+        }
+        if (!dateFormatField.getText().trim().isEmpty()) {
+            mapping.setDateFormatter(DateTimeFormatter.ofPattern(dateFormatField.getText().trim()));
+        }
+        return mapping;
+    }
+
+    private void importData() {
+        CsvColumnMapping mapping;
+        try {
+            mapping = createMapping();
+            mapping.validate();
+        } catch (Exception e) {
+            new ErrorModal("Error: " + e.getMessage()).show();
+            return;
+        }
+
+        CsvTransactionImporter importer = new CsvTransactionImporter(mapping);
+        importer.setProgressListener((bytesRead, totalBytes, imported, skipped) -> Platform.runLater(() -> {
+            progressBar.setProgress(totalBytes == 0 ? 1 : (double) bytesRead / totalBytes);
+            statusLabel.setText(String.format("%,d imported, %,d skipped", imported, skipped));
+        }));
+
+        importButton.setDisable(true);
+        progressBar.setVisible(true);
+        statusLabel.setText("Importing...");
+
+        importThread = new Thread(() -> {
+            try {
+                CsvTransactionImporter.ImportResult result = importer.importFile(file.toPath());
+                Platform.runLater(() -> finish(result.toString() + firstError(result)));
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    finish(null);
+                    new ErrorModal("Import stopped: " + e.getMessage()).show();
+                });
+            }
+        }, "csv-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    private String firstError(CsvTransactionImporter.ImportResult result) {
+        return result.getErrors().isEmpty() ? "" : "\nFirst problem: " + result.getErrors().get(0);
+    }
+
+    // Rows already written stay imported even if the import failed part way, so always refresh
+    private void finish(String summary) {
+        importThread = null;
+        OverviewPage.getInstance().requestReloading();
+        if (onImported != null) onImported.run();
+        progressBar.setProgress(1);
+        if (summary != null) statusLabel.setText(summary);
+        cancelButton.setText("Close");
+    }
+
+    private void cancel() {
+        if (importThread != null) {
+            importThread.interrupt();
+            statusLabel.setText("Cancelling after the current chunk...");
+            return;
+        }
+        modal.close();
+    }
+}
@@ -14,17 +14,18 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import server.model.Category;
+import server.model.TransactionType;
 import server.service.CategoryService;
 
 public class AddCategoryForm extends VBox {
     private final Modal modal;
     private TextField nameField;
-    private ComboBox<String> typeComboBox;
+    private ComboBox<TransactionType> typeComboBox;
     private TextField budgetField;
     private final SettingsPage settingsPage;
 
     // Modify constructor to accept a category type
-    public AddCategoryForm(Modal modal, String categoryType, SettingsPage settingsPage) {
+    public AddCategoryForm(Modal modal, TransactionType categoryType, SettingsPage settingsPage) {
         this.modal = modal;
         setupForm(categoryType); // Pass categoryType to setupForm method
         this.settingsPage = settingsPage;
@@ -37,7 +38,7 @@ public class AddCategoryForm extends VBox {
         return region;
     }
     
-    private void setupForm(String categoryType) {
+    private void setupForm(TransactionType categoryType) {
         setSpacing(20);
 
         // Label for form title
@@ -54,7 +55,7 @@ public class AddCategoryForm extends VBox {
         // ComboBox for category type (Income or Expense) with Label and Spacer
         Label typeLabel = new Label("Category type: ");
         typeComboBox = new ComboBox<>();
-        typeComboBox.getItems().addAll("Income", "Expense");
+        typeComboBox.getItems().addAll(TransactionType.INCOME, TransactionType.EXPENSE);
         typeComboBox.setValue(categoryType);  // Set the value based on the passed category type
         HBox typeRow = new HBox(10, typeLabel, createSpacer(), typeComboBox);
 
@@ -83,7 +84,7 @@ public class AddCategoryForm extends VBox {
 
     private void saveNewCategory() {
         String name = nameField.getText();
-        String type = typeComboBox.getValue();
+        TransactionType type = typeComboBox.getValue();
         double budget = 0;
 
         try {
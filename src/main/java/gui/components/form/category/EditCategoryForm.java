@@ -14,12 +14,13 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import server.model.Category;
+import server.model.TransactionType;
 import server.service.CategoryService;
 
 public class EditCategoryForm extends VBox {
     private final Modal modal;
     private TextField nameField;
-    private ComboBox<String> typeComboBox;
+    private ComboBox<TransactionType> typeComboBox;
     private TextField budgetField;
     private final SettingsPage settingsPage;
     private final Category category;
@@ -55,7 +56,7 @@ public class EditCategoryForm extends VBox {
         // ComboBox for category type (Income or Expense) with Label and Spacer
         Label typeLabel = new Label("Category type: ");
         typeComboBox = new ComboBox<>();
-        typeComboBox.getItems().addAll("Income", "Expense");
+        typeComboBox.getItems().addAll(TransactionType.INCOME, TransactionType.EXPENSE);
         typeComboBox.setValue(category.getType());  // Pre-fill with the current category type
         HBox typeRow = new HBox(10, typeLabel, createSpacer(), typeComboBox);
 
@@ -86,7 +87,7 @@ public class EditCategoryForm extends VBox {
 
     private void saveEditedCategory() {
         String newName = nameField.getText();
-        String newType = typeComboBox.getValue();
+        TransactionType newType = typeComboBox.getValue();
         double newBudget;
 
         try {
@@ -3,7 +3,6 @@ package gui.components.form.transaction;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Button;
 import javafx.scene.layout.HBox;
-import gui.components.transaction.list.TransactionListView;
 import gui.components.util.ErrorModal;
 import gui.components.util.Modal;
 import gui.pages.OverviewPage;
@@ -11,16 +10,10 @@ import server.service.TransactionService;
 
 public class AddTransactionForm extends TransactionForm {
 
-    private TransactionListView view;
-
     public AddTransactionForm(Modal modal) {
         super(modal);
     }
 
-    public void setListView(TransactionListView view) {
-        this.view = view;
-    }
-
     @Override
     protected HBox createButtonRow() {
         // Create the HBox for buttons
@@ -11,8 +11,10 @@ import server.service.TransactionService;
 
 public class EditTransactionForm extends TransactionForm {
 
+    // Edits a copy: the list and the month cache share the given instance, and only the
+    // saved change may reach them
     public EditTransactionForm(Transaction transaction, Modal modal) {
-        super(transaction, modal);
+        super(transaction.prototype(), modal);
     }
 
     @Override
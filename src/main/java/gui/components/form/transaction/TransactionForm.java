@@ -17,6 +17,7 @@ import javafx.scene.layout.VBox;
 import server.model.Account;
 import server.model.Category;
 import server.model.Transaction;
+import server.model.TransactionType;
 import server.service.AccountService;
 import server.service.CategoryService;
 
@@ -57,17 +58,17 @@ public abstract class TransactionForm extends VBox {
         // Type buttons (Income, Expense, Transfer)
         HBox typeRow = new HBox(10);
         typeRow.setAlignment(Pos.CENTER);
-        incomeButton = new Button("Income");
-        expenseButton = new Button("Expense");
-        transferButton = new Button("Transfer");
+        incomeButton = new Button(TransactionType.INCOME.getLabel());
+        expenseButton = new Button(TransactionType.EXPENSE.getLabel());
+        transferButton = new Button(TransactionType.TRANSFER.getLabel());
 
         incomeButton.getStyleClass().addAll("button", "fill-green", "border-green");
         expenseButton.getStyleClass().addAll("button", "fill-red", "border-red");
         transferButton.getStyleClass().addAll("button", "fill-yellow", "border-yellow");
 
-        incomeButton.setOnAction(e -> setTransactionType("Income"));
-        expenseButton.setOnAction(e -> setTransactionType("Expense"));
-        transferButton.setOnAction(e -> setTransactionType("Transfer"));
+        incomeButton.setOnAction(e -> setTransactionType(TransactionType.INCOME));
+        expenseButton.setOnAction(e -> setTransactionType(TransactionType.EXPENSE));
+        transferButton.setOnAction(e -> setTransactionType(TransactionType.TRANSFER));
 
         typeRow.getChildren().addAll(incomeButton, expenseButton, transferButton);
         
@@ -126,7 +127,7 @@ public abstract class TransactionForm extends VBox {
         sourceAccountComboBox.valueProperty().addListener((observable, oldValue, newValue) -> transaction.setSourceAccount(newValue.getId()));
         form.getChildren().add(sourceAccountRow);
 
-        if (transaction.getType().equals("Transfer")) {
+        if (transaction.getType() == TransactionType.TRANSFER) {
             // Destination account row
             HBox destinationAccountRow = createRow("Destination Account", destinationAccountComboBox = new ComboBox<>());
             destinationAccountComboBox.getItems().addAll(App.getInstance().getAccountList());
@@ -151,9 +152,9 @@ public abstract class TransactionForm extends VBox {
         }
 
         // Category row (only for Income or Expense)
-        if (transaction.getType().equals("Income") || transaction.getType().equals("Expense")) {
+        if (transaction.getType() == TransactionType.INCOME || transaction.getType() == TransactionType.EXPENSE) {
             HBox categoryRow = createRow("Category", categoryComboBox = new ComboBox<>());
-            if (transaction.getType().equals("Income")) {
+            if (transaction.getType() == TransactionType.INCOME) {
                 categoryComboBox.getItems().addAll(App.getInstance().getIncomeCategoryList());
             } else {
                 categoryComboBox.getItems().addAll(App.getInstance().getExpenseCategoryList());
@@ -186,15 +187,15 @@ public abstract class TransactionForm extends VBox {
     }
 
 
-    private void setTransactionType(String type) {
+    private void setTransactionType(TransactionType type) {
         transaction.setType(type);
         incomeButton.getStyleClass().remove("active");
         expenseButton.getStyleClass().remove("active");
         transferButton.getStyleClass().remove("active");
 
-        if (incomeButton.getText().equals(type)) incomeButton.getStyleClass().add("active");
-        if (expenseButton.getText().equals(type)) expenseButton.getStyleClass().add("active");
-        if (transferButton.getText().equals(type)) transferButton.getStyleClass().add("active");
+        if (type == TransactionType.INCOME) incomeButton.getStyleClass().add("active");
+        if (type == TransactionType.EXPENSE) expenseButton.getStyleClass().add("active");
+        if (type == TransactionType.TRANSFER) transferButton.getStyleClass().add("active");
         
         if(flag) {
         	transaction.setCategory(0);
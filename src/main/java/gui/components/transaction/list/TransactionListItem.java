@@ -4,6 +4,7 @@ import org.tbee.javafx.scene.layout.MigPane;
 
 import javafx.scene.control.Label;
 import server.model.Transaction;
+import server.model.TransactionType;
 import gui.components.form.transaction.EditTransactionForm;
 import gui.components.util.BalanceLabel;
 import gui.components.util.Modal;
@@ -57,16 +58,16 @@ public class TransactionListItem extends MigPane {
 	}
 	
 	private void updateAmountLabel () {
-		if (transaction.getType().equals("Transfer"))
+		if (transaction.getType() == TransactionType.TRANSFER)
 			amountLabel.update(transaction.getAmount(), true);
-		else if (transaction.getType().equals("Expense"))
+		else if (transaction.getType() == TransactionType.EXPENSE)
 			amountLabel.update(-transaction.getAmount());
 		else
 			amountLabel.update(transaction.getAmount());
 	}
 	
 	private void updateAccountLabel () {
-		if (transaction.getType().equals("Transfer"))
+		if (transaction.getType() == TransactionType.TRANSFER)
 			accountLabel.setText(transaction.getSourceAccountName() + "->" + transaction.getDestinationAccountName());
 		else
 			accountLabel.setText(transaction.getSourceAccountName());
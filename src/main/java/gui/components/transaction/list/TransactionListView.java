@@ -1,76 +1,262 @@
 package gui.components.transaction.list;
 
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.IndexedCell;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.layout.StackPane;
 import server.model.Transaction;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
-public class TransactionListView extends ScrollPane {
-    private final VBox contentPane;
-    List<Transaction> transactions;
+/**
+ * Transactions grouped under date headers, newest first.
+ * <p>
+ * Backed by a {@link ListView}, so only the rows on screen have nodes, and those
+ * nodes are reused while scrolling. Changes are applied by replacing just the rows
+ * that differ, leaving the other cells untouched. The header of the topmost date
+ * stays pinned while its transactions scroll past.
+ * <p>
+ * The rows themselves are the model: a header row per date followed by that date's
+ * transactions, in the {@code date_time DESC} order the DAO returns. Single changes
+ * find their place by binary search instead of regrouping the list.
+ */
+public class TransactionListView extends StackPane {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+    private static final Comparator<Transaction> NEWEST_FIRST = (a, b) -> b.getDateTime().compareTo(a.getDateTime());
+
+    private final ListView<Row> listView = new ListView<>();
+    private final Label stickyHeader = createDateHeader();
+    private VirtualFlow<?> flow;
 
     public TransactionListView(List<Transaction> transactions) {
-        this.transactions = transactions;
-        contentPane = new VBox(10);  // Spacing between items
-        setContent(contentPane);
-        groupAndDisplayTransactions();
-        setFitToWidth(true);
-        setFitToHeight(true);
+        Label noDataLabel = new Label("No data");
+        noDataLabel.setStyle("-fx-text-fill: gray; -fx-font-size: 14;"); // Style the no data label
+        listView.setPlaceholder(noDataLabel);
+        listView.setCellFactory(view -> new TransactionCell());
+        listView.setFocusTraversable(false);
+        listView.skinProperty().addListener((observable, oldSkin, newSkin) -> attachStickyHeader());
+
+        stickyHeader.getStyleClass().add("background-neutral");
+        stickyHeader.setMaxWidth(Double.MAX_VALUE);
+        stickyHeader.setMouseTransparent(true);
+        stickyHeader.setVisible(false);
+        StackPane.setAlignment(stickyHeader, Pos.TOP_LEFT);
+
+        getChildren().addAll(listView, stickyHeader);
+        setTransactions(transactions);
     }
 
+    // Shows another list, e.g. after a reload; rows that did not change keep their cells
+    public void setTransactions(List<Transaction> transactions) {
+        patchRows(groupByDate(transactions));
+    }
+
+    // Removes the transaction with the same id, and its date header if it was the date's last one
     public void remove(Transaction transaction) {
-        contentPane.getChildren().clear();
-        transactions.remove(transaction);
-        groupAndDisplayTransactions();
+        List<Row> rows = listView.getItems();
+        int index = indexOf(transaction);
+        if (index < 0) return;
+        boolean lastOfDate = rows.get(index - 1).transaction == null
+                && (index + 1 == rows.size() || rows.get(index + 1).transaction == null);
+        if (lastOfDate) {
+            rows.subList(index - 1, index + 1).clear();
+        } else {
+            rows.remove(index);
+        }
+        updateStickyHeader();
     }
 
+    // Inserts below the transactions at the same or a later time, adding a header for a new date
     public void add(Transaction transaction) {
-        contentPane.getChildren().clear();
-        transactions.add(transaction);
-        groupAndDisplayTransactions();
+        List<Row> rows = listView.getItems();
+        Row row = new Row(transaction.getDateTime().toLocalDate(), transaction);
+        int index = insertionPoint(rows, row);
+        if (index > 0 && rows.get(index - 1).date.equals(row.date)) {
+            rows.add(index, row);
+        } else {
+            rows.addAll(index, List.of(new Row(row.date, null), row));
+        }
+        updateStickyHeader();
     }
 
-    private void groupAndDisplayTransactions() {
-        // Clear the current content
-        contentPane.getChildren().clear();
+    // Replaces the transaction with the same id, in place if its time did not change
+    public void update(Transaction transaction) {
+        int index = indexOf(transaction);
+        if (index < 0) return;
+        List<Row> rows = listView.getItems();
+        if (rows.get(index).transaction.getDateTime().equals(transaction.getDateTime())) {
+            rows.set(index, new Row(rows.get(index).date, transaction));
+            return;
+        }
+        remove(transaction);
+        add(transaction);
+    }
+
+    private void patchRows(List<Row> updated) {
+        List<Row> current = listView.getItems();
+
+        // Keep the rows both lists start and end with, replace only what lies between
+        int max = Math.min(current.size(), updated.size());
+        int start = 0;
+        while (start < max && current.get(start).sameAs(updated.get(start))) start++;
+        int end = 0;
+        while (end < max - start && current.get(current.size() - 1 - end).sameAs(updated.get(updated.size() - 1 - end))) end++;
 
-        // Check if transactions are empty
-        if (transactions == null || transactions.isEmpty()) {
-            Label noDataLabel = new Label("No data");
-            noDataLabel.setStyle("-fx-text-fill: gray; -fx-font-size: 14;"); // Style the no data label
-            contentPane.getChildren().add(noDataLabel);
-            return; // Exit the method if there are no transactions
+        List<Row> removed = current.subList(start, current.size() - end);
+        List<Row> added = updated.subList(start, updated.size() - end);
+        if (removed.size() == added.size()) {
+            for (int i = 0; i < added.size(); i++) {
+                current.set(start + i, added.get(i));
+            }
+        } else {
+            removed.clear();
+            current.addAll(start, added);
         }
+        // Nothing in common, e.g. another month: start from the top
+        if (start == 0 && end == 0 && !current.isEmpty()) listView.scrollTo(0);
+        updateStickyHeader();
+    }
 
-        // Group transactions by their date
-        Map<LocalDate, List<Transaction>> groupedTransactions = transactions.stream()
-            .collect(Collectors.groupingBy(transaction -> transaction.getDateTime().toLocalDate()));
+    // One pass over the newest-first list: a header row wherever the date changes
+    private static List<Row> groupByDate(List<Transaction> transactions) {
+        if (!isNewestFirst(transactions)) {
+            transactions = new ArrayList<>(transactions);
+            transactions.sort(NEWEST_FIRST);
+        }
+        List<Row> rows = new ArrayList<>(transactions.size() + 31);
+        LocalDate currentDate = null;
+        for (Transaction transaction : transactions) {
+            LocalDate date = transaction.getDateTime().toLocalDate();
+            if (!date.equals(currentDate)) {
+                rows.add(new Row(date, null));
+                currentDate = date;
+            }
+            rows.add(new Row(date, transaction));
+        }
+        return rows;
+    }
 
-        // For each date group, create a header and add transactions under it
-        groupedTransactions.forEach((date, transactionsOnDate) -> {
-            // Create and add the header (label) for the date
-            Label dateHeader = createDateHeader(date);
-            contentPane.getChildren().add(dateHeader);
+    private static boolean isNewestFirst(List<Transaction> transactions) {
+        for (int i = 1; i < transactions.size(); i++) {
+            if (NEWEST_FIRST.compare(transactions.get(i - 1), transactions.get(i)) > 0) return false;
+        }
+        return true;
+    }
 
-            // Add each transaction under the date
-            for (Transaction transaction : transactionsOnDate) {
-                TransactionListItem item = new TransactionListItem(transaction);
-                contentPane.getChildren().add(item);
+    // First row that sorts after the given one; rows that sort equal stay above it
+    private static int insertionPoint(List<Row> rows, Row row) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rows.get(mid).compareTo(row) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-        });
+        }
+        return low;
+    }
+
+    // By id, as the caller's copy may carry a different time than the row shown
+    private int indexOf(Transaction transaction) {
+        List<Row> rows = listView.getItems();
+        for (int i = 0; i < rows.size(); i++) {
+            Transaction shown = rows.get(i).transaction;
+            if (shown != null && shown.getId() == transaction.getId()) return i;
+        }
+        return -1;
+    }
+
+    private void attachStickyHeader() {
+        flow = (VirtualFlow<?>) listView.lookup(".virtual-flow");
+        if (flow == null) return;
+        flow.positionProperty().addListener((observable, oldValue, newValue) -> updateStickyHeader());
+        updateStickyHeader();
+    }
+
+    // Pins the date of the topmost visible row once the list has scrolled
+    private void updateStickyHeader() {
+        IndexedCell<?> first = flow == null ? null : flow.getFirstVisibleCell();
+        List<Row> rows = listView.getItems();
+        if (first == null || first.getIndex() < 0 || first.getIndex() >= rows.size() || flow.getPosition() <= 0) {
+            stickyHeader.setVisible(false);
+            return;
+        }
+        stickyHeader.setText(rows.get(first.getIndex()).date.format(DATE_FORMAT));
+        stickyHeader.setVisible(true);
     }
 
     // Create a simple label for the date header
-    private Label createDateHeader(LocalDate date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM d, yyyy");
-        Label dateHeader = new Label(date.format(formatter));
+    private static Label createDateHeader() {
+        Label dateHeader = new Label();
         dateHeader.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");  // Styling for the header
         return dateHeader;
     }
+
+    // A date header when transaction is null, otherwise one transaction
+    private static class Row implements Comparable<Row> {
+        private final LocalDate date;
+        private final Transaction transaction;
+
+        private Row(LocalDate date, Transaction transaction) {
+            this.date = date;
+            this.transaction = transaction;
+        }
+
+        // Same instance, not just the same id: an edited transaction is a new object
+        private boolean sameAs(Row other) {
+            return transaction == other.transaction && date.equals(other.date);
+        }
+
+        // List order: later dates first, each date's header before its transactions, newest first
+        @Override
+        public int compareTo(Row other) {
+            int byDate = other.date.compareTo(date);
+            if (byDate != 0) return byDate;
+            if (transaction == null || other.transaction == null) {
+                return Boolean.compare(transaction != null, other.transaction != null);
+            }
+            return NEWEST_FIRST.compare(transaction, other.transaction);
+        }
+    }
+
+    // Holds one header label and one transaction item, reused for whichever row it shows
+    private static class TransactionCell extends ListCell<Row> {
+        private final Label header = createDateHeader();
+        private TransactionListItem item;
+
+        private TransactionCell() {
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            setPrefWidth(0); // Follow the list's width instead of scrolling sideways
+        }
+
+        @Override
+        protected void updateItem(Row row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(null);
+            if (empty || row == null) {
+                setGraphic(null);
+            } else if (row.transaction == null) {
+                header.setText(row.date.format(DATE_FORMAT));
+                setGraphic(header);
+            } else {
+                if (item == null) {
+                    item = new TransactionListItem(row.transaction);
+                    item.prefWidthProperty().bind(widthProperty());
+                } else {
+                    item.updateView(row.transaction);
+                }
+                setGraphic(item);
+            }
+        }
+    }
 }
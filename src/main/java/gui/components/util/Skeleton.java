@@ -0,0 +1,40 @@
+package gui.components.util;
+
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+// Grey placeholder shapes shown where data is still loading (styled by the "skeleton" class)
+public class Skeleton {
+
+    private Skeleton() {}
+
+    // A bar of the given height that stretches to the available width (maxWidth) or stays at width
+    public static Region block(double width, double height) {
+        Region block = new Region();
+        block.getStyleClass().add("skeleton");
+        block.setPrefSize(width, height);
+        block.setMinHeight(height);
+        block.setMaxHeight(height);
+        return block;
+    }
+
+    // count bars of decreasing width, like lines of text
+    public static VBox lines(int count, double height) {
+        VBox lines = new VBox(10);
+        for (int i = 0; i < count; i++) {
+            Region line = block(Region.USE_COMPUTED_SIZE, height);
+            line.setMaxWidth(i % 3 == 2 ? 200 : Double.MAX_VALUE);
+            lines.getChildren().add(line);
+        }
+        VBox.setVgrow(lines, Priority.ALWAYS);
+        return lines;
+    }
+
+    // A rounded pane with a title and placeholder lines, the shape of the panes on the pages
+    public static RoundedPane pane(String title, int lines) {
+        RoundedPane pane = new RoundedPane(title);
+        pane.getChildren().add(lines(lines, 20));
+        return pane;
+    }
+}
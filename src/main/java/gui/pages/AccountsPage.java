@@ -10,19 +10,32 @@ import javafx.scene.paint.Color;
 import javafx.scene.layout.Priority;
 
 import server.model.Account;
-import server.model.Transaction;
+import server.service.AccountService;
+import server.utils.IntDoubleMap;
 import gui.app.App;
+import gui.app.AsyncData;
+import gui.app.MonthAggregate;
 import gui.components.chart.SmoothedLineChart;
 import gui.components.chart.util.GraphDataConverter;
 import gui.components.chart.util.GraphDataPoint;
 import gui.components.util.BalanceLabel;
+import gui.components.util.Skeleton;
 
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AccountsPage extends ScrollPane {
 
-    public AccountsPage() {
-        VBox content = new VBox();
+    private final VBox content;
+    // Kept across reloads, so each account's chart updates its series in place instead of being rebuilt
+    private final Map<Integer, CustomTitledPane> accountPanes = new HashMap<>();
+    private static AccountsPage accountsPage;
+
+    private AccountsPage() {
+        content = new VBox();
         content.setSpacing(10);
         getStyleClass().addAll("main-layout", "edge-to-edge");
 
@@ -31,24 +44,74 @@ public class AccountsPage extends ScrollPane {
         title.getStyleClass().addAll("page-title"); // Apply CSS style
         content.getChildren().add(title);
 
+        // Set the content of the ScrollPane
+        this.setContent(content);
+        this.setFitToWidth(true);
+    }
+
+    public static AccountsPage getInstance() {
+        if (accountsPage == null) accountsPage = new AccountsPage();
+        return accountsPage;
+    }
+
+    // Loads the selected month; until it arrives the panes of the last load stay, or placeholders on the first
+    public void reload() {
         List<Account> accounts = App.getInstance().getAccountList();
+        if (accountPanes.isEmpty()) {
+            content.getChildren().remove(1, content.getChildren().size());
+            for (Account account : accounts) {
+            	if (account.getGoal() > 0) continue;
+                Region placeholder = Skeleton.block(Region.USE_COMPUTED_SIZE, 40);
+                placeholder.setMaxWidth(Double.MAX_VALUE);
+                content.getChildren().add(placeholder);
+            }
+        }
+
+        YearMonth month = App.getInstance().getSelectedMonth();
+        AsyncData.getInstance().load(this, () -> new AccountsData(
+                App.getInstance().getMonthAggregate(month),
+                new AccountService().getTimeRelatedBalances(month.getYear(), month.getMonthValue())),
+                data -> showAccounts(accounts, data));
+    }
 
+    private void showAccounts(List<Account> accounts, AccountsData data) {
+        List<CustomTitledPane> shown = new ArrayList<>();
+        Map<Integer, CustomTitledPane> kept = new HashMap<>();
         for (Account account : accounts) {
         	if (account.getGoal() > 0) continue;
-            CustomTitledPane accountPane = new CustomTitledPane(account);
-            content.getChildren().add(accountPane);
+            CustomTitledPane accountPane = accountPanes.get(account.getId());
+            if (accountPane == null) accountPane = new CustomTitledPane();
+            accountPane.update(account, data.balances.get(account.getId(), 0), data.aggregate);
+            kept.put(account.getId(), accountPane);
+            shown.add(accountPane);
         }
+        // Panes of deleted accounts are dropped with their charts
+        accountPanes.clear();
+        accountPanes.putAll(kept);
+        content.getChildren().remove(1, content.getChildren().size());
+        content.getChildren().addAll(shown);
+    }
 
-        // Set the content of the ScrollPane
-        this.setContent(content);
-        this.setFitToWidth(true);
+    // What the page shows, loaded together off the FX thread
+    private static class AccountsData {
+        private final MonthAggregate aggregate;
+        private final IntDoubleMap balances;
+
+        private AccountsData(MonthAggregate aggregate, IntDoubleMap balances) {
+            this.aggregate = aggregate;
+            this.balances = balances;
+        }
     }
     
     private static class CustomTitledPane extends VBox {
         private boolean expanded = false; // Track the expansion state
         private final VBox contentBox;
 
-        public CustomTitledPane(Account account) {
+        private final Label accountName;
+        private final BalanceLabel accountBalance;
+        private final SmoothedLineChart chart;
+
+        public CustomTitledPane() {
             setPadding(new Insets(5));
             getStyleClass().add("account-pane"); // Apply CSS style
 
@@ -59,7 +122,7 @@ public class AccountsPage extends ScrollPane {
             header.setStyle("-fx-cursor: hand;"); // Set cursor to hand
 
             // Account name on the left
-            Label accountName = new Label(account.getName());
+            accountName = new Label();
             accountName.getStyleClass().add("account-name"); // Apply CSS style
 
             // Growing spacer
@@ -67,7 +130,7 @@ public class AccountsPage extends ScrollPane {
             HBox.setHgrow(spacer, Priority.ALWAYS);
 
             // Account balance on the right
-            BalanceLabel accountBalance = new BalanceLabel(account.getTimeRelatedBalance(), true);
+            accountBalance = new BalanceLabel(0, true);
             accountBalance.getStyleClass().add("account-balance"); // Apply CSS style
 
             // Arrow for expansion state
@@ -82,20 +145,8 @@ public class AccountsPage extends ScrollPane {
             contentBox = new VBox();
             contentBox.setPadding(new Insets(10)); // Optional padding for the chart container
 
-            // Initialize the single SmoothedLineChart
-            // Single chart instance
-            SmoothedLineChart chart = new SmoothedLineChart();
-
-            // Create data points
-            List<Transaction> transactions = App.getInstance().getTransactionList();
-            List<GraphDataPoint> balanceData = GraphDataConverter.convertToAccountBalance(transactions, account);
-            List<GraphDataPoint> incomeData = GraphDataConverter.convertToAccountIncome(transactions, account);
-            List<GraphDataPoint> expenseData = GraphDataConverter.convertToAccountExpense(transactions, account);
-
-            // Add series to the single chart
-            chart.addSeries(balanceData, "Balance", Color.BLUE);
-            chart.addSeries(incomeData, "Income", Color.GREEN);
-            chart.addSeries(expenseData, "Expenses", Color.RED);
+            // Single chart instance, fed by update
+            chart = new SmoothedLineChart();
 
             // Set the initial state to collapsed
             contentBox.setVisible(expanded);
@@ -109,6 +160,23 @@ public class AccountsPage extends ScrollPane {
             contentBox.setManaged(false); // Ensure it does not take space when hidden
         }
 
+        // Shows the account's month; the chart patches the data points it already has
+        public void update(Account account, double balance, MonthAggregate aggregate) {
+            accountName.setText(account.getName());
+            accountBalance.update(balance, true);
+
+            // Create data points
+            List<GraphDataPoint> balanceData = GraphDataConverter.convertToAccountBalance(aggregate, account, balance);
+            List<GraphDataPoint> incomeData = GraphDataConverter.convertToAccountIncome(aggregate, account);
+            List<GraphDataPoint> expenseData = GraphDataConverter.convertToAccountExpense(aggregate, account);
+
+            // Replace the series of the single chart in one batch
+            chart.setSeries(List.of(
+                    new SmoothedLineChart.ChartSeries(balanceData, "Balance", Color.BLUE),
+                    new SmoothedLineChart.ChartSeries(incomeData, "Income", Color.GREEN),
+                    new SmoothedLineChart.ChartSeries(expenseData, "Expenses", Color.RED)));
+        }
+
         private void toggleContent(Label arrow) {
             expanded = !expanded; // Toggle the state
             contentBox.setVisible(expanded); // Show or hide the content box
@@ -2,17 +2,21 @@ package gui.pages;
 
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import gui.app.App;
+import gui.app.AsyncData;
+import gui.app.MonthAggregate;
 import gui.components.chart.BudgetProgressBar;
 import gui.components.chart.DoughnutChart;
 import gui.components.chart.util.GraphDataPoint;
 import gui.components.util.BalanceLabel;
 import gui.components.util.Modal;
+import gui.components.util.Skeleton;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
@@ -26,16 +30,17 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Popup;
-import server.model.Transaction;
 import server.model.Category;
+import server.model.TransactionType;
 
 public class AnalysisPage extends VBox {
-    private static final String INCOME_MODE = "Income";
-    private static final String EXPENSE_MODE = "Expense";
+    private static final TransactionType INCOME_MODE = TransactionType.INCOME;
+    private static final TransactionType EXPENSE_MODE = TransactionType.EXPENSE;
 
     private final App app;
     private VBox categoryListPane;
-    private String currentMode;
+    private TransactionType currentMode;
+    private MonthAggregate aggregate;
 
     // Toggle buttons moved to private fields
     private ToggleButton incomeButton;
@@ -67,11 +72,11 @@ public class AnalysisPage extends VBox {
 
         // Initialize toggle buttons
         ToggleGroup modeToggleGroup = new ToggleGroup();
-        incomeButton = new ToggleButton(INCOME_MODE);
+        incomeButton = new ToggleButton(INCOME_MODE.getLabel());
         incomeButton.setToggleGroup(modeToggleGroup);
         incomeButton.getStyleClass().addAll("analysis-toggle-button", "income-toggle", "fill-neutral", "border-neutral");
 
-        expenseButton = new ToggleButton(EXPENSE_MODE);
+        expenseButton = new ToggleButton(EXPENSE_MODE.getLabel());
         expenseButton.setToggleGroup(modeToggleGroup);
         expenseButton.getStyleClass().addAll("analysis-toggle-button", "expense-toggle", "fill-neutral", "border-neutral");
 
@@ -132,21 +137,21 @@ public class AnalysisPage extends VBox {
         return monthEnum.getDisplayName(TextStyle.FULL, Locale.ENGLISH) + ", " + app.getYear();
     }
 
-    private void changeMode(String newMode) {
-        if (!currentMode.equals(newMode)) {
+    private void changeMode(TransactionType newMode) {
+        if (currentMode != newMode) {
             currentMode = newMode;
             refreshPage();
             updateToggleButtonStyle(currentMode);
         }
     }
 
-    private void updateToggleButtonStyle(String activeMode) {
+    private void updateToggleButtonStyle(TransactionType activeMode) {
         incomeButton.getStyleClass().remove("active");
         expenseButton.getStyleClass().remove("active");
 
-        if (INCOME_MODE.equals(activeMode)) {
+        if (activeMode == INCOME_MODE) {
             incomeButton.getStyleClass().add("active");
-        } else if (EXPENSE_MODE.equals(activeMode)) {
+        } else if (activeMode == EXPENSE_MODE) {
             expenseButton.getStyleClass().add("active");
         }
     }
@@ -185,25 +190,21 @@ public class AnalysisPage extends VBox {
 
     private ObservableList<PieChart.Data> prepareChartData() {
         ObservableList<PieChart.Data> chartData = FXCollections.observableArrayList();
-        List<Transaction> transactions = app.getTransactionList().stream()
-            .filter(t -> currentMode.equals(t.getType()) && !t.getType().equals("Transfer"))
-            .collect(Collectors.toList());
 
         Map<String, Double> categoryTotals = new HashMap<>();
 
-        List<Category> categories = currentMode.equals(INCOME_MODE)
+        List<Category> categories = currentMode == INCOME_MODE
             ? app.getIncomeCategoryList()
             : app.getExpenseCategoryList();
 
-        for (Transaction transaction : transactions) {
-            int categoryId = transaction.getCategory();
+        for (int categoryId : aggregate.getCategories(currentMode)) {
             String categoryName = categories.stream()
                 .filter(cat -> cat.getId() == categoryId)
                 .map(Category::getName)
                 .findFirst()
                 .orElse("Unknown");
 
-            categoryTotals.merge(categoryName, transaction.getAmount(), Double::sum);
+            categoryTotals.merge(categoryName, aggregate.getCategoryTotal(currentMode, categoryId), Double::sum);
         }
 
         categoryTotals.forEach((name, total) -> 
@@ -224,15 +225,10 @@ public class AnalysisPage extends VBox {
         categoryListPane.getChildren().add(categoryLabel);
 
         // Get categories based on the current mode
-        List<Category> categories = currentMode.equals(INCOME_MODE)
+        List<Category> categories = currentMode == INCOME_MODE
             ? app.getIncomeCategoryList()
             : app.getExpenseCategoryList();
 
-        // Tổng số cho mỗi categories
-        Map<Integer, Double> categoryTotals = app.getTransactionList().stream()
-            .filter(t -> currentMode.equals(t.getType()) && !t.getType().equals("Transfer"))
-            .collect(Collectors.groupingBy(Transaction::getCategory, 
-                Collectors.summingDouble(Transaction::getAmount)));
 
         // Phân loại các categories có và không có ngân sách
         List<Category> categoriesWithBudget = categories.stream()
@@ -244,12 +240,12 @@ public class AnalysisPage extends VBox {
 
         // Thêm categories có ngân sách trước
         for (Category category : categoriesWithBudget) {
-            addCategoryItem(category, categoryTotals.getOrDefault(category.getId(), 0.0));
+            addCategoryItem(category, aggregate.getCategoryTotal(currentMode, category.getId()));
         }
 
         // Thêm categories k có ngân sách sau
         for (Category category : categoriesWithoutBudget) {
-            addCategoryItem(category, categoryTotals.getOrDefault(category.getId(), 0.0));
+            addCategoryItem(category, aggregate.getCategoryTotal(currentMode, category.getId()));
         }
         
         return categoryListPane;
@@ -350,25 +346,13 @@ public class AnalysisPage extends VBox {
         // Khởi tạo SmoothedLineChart thay vì LineChart
         SmoothedLineChart smoothedLineChart = new SmoothedLineChart();
 
-        // Lấy danh sách các giao dịch theo category và mode hiện tại
-        List<Transaction> transactions = app.getTransactionList().stream()
-                .filter(t -> t.getCategory() == category.getId() && t.getType().equals(currentMode))
-                .collect(Collectors.toList());
-
-        // Lưu trữ dữ liệu hàng ngày
-        Map<Integer, Double> dailySpending = new HashMap<>();
-        long totalSpent = 0;
-        for (Transaction transaction : transactions) {
-            int dayOfMonth = transaction.getDateTime().getDayOfMonth();
-            double amount = transaction.getAmount();
-            dailySpending.put(dayOfMonth, dailySpending.getOrDefault(dayOfMonth, 0.0) + amount);
-            totalSpent += (long) amount;
-        }
+        // Tổng theo ngày của category trong mode hiện tại
+        long totalSpent = (long) aggregate.getCategoryTotal(currentMode, category.getId());
 
         // Chuẩn bị dữ liệu cho biểu đồ
         List<GraphDataPoint> graphDataPoints = new ArrayList<>();
         for (int day = 1; day <= LocalDate.now().getDayOfMonth(); day++) {
-            double totalForDay = dailySpending.getOrDefault(day, 0.0);
+            double totalForDay = aggregate.getCategoryDaily(currentMode, category.getId(), day);
             graphDataPoints.add(new GraphDataPoint(LocalDate.now().withDayOfMonth(day), totalForDay));
         }
 
@@ -386,11 +370,26 @@ public class AnalysisPage extends VBox {
         modal.show();
     }
 
+    // Shows the header and placeholders at once, then the chart and categories when the month has loaded
     private void refreshPage() {
-        getChildren().clear();
-        getChildren().add(createHeaderPane());
-        ObservableList<PieChart.Data> chartData = prepareChartData();
-        getChildren().add(createContentPane(chartData));
+        getChildren().setAll(createHeaderPane(), createSkeletonPane());
+        YearMonth month = app.getSelectedMonth();
+        AsyncData.getInstance().load(this, () -> app.getMonthAggregate(month), loaded -> {
+            aggregate = loaded;
+            getChildren().set(1, createContentPane(prepareChartData()));
+        });
         OverviewPage.getInstance().requestReloading();
     }
+
+    private HBox createSkeletonPane() {
+        HBox contentPane = new HBox(20);
+        contentPane.getStyleClass().add("analysis-content");
+        Region chart = Skeleton.block(300, 300);
+        chart.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(chart, Priority.ALWAYS);
+        VBox categories = Skeleton.lines(8, 30);
+        categories.getStyleClass().add("category-list");
+        contentPane.getChildren().addAll(chart, categories);
+        return contentPane;
+    }
 }
\ No newline at end of file
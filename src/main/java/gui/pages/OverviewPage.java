@@ -1,11 +1,14 @@
 package gui.pages;
 
 import java.time.Month;
+import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
 
 import gui.app.App;
+import gui.app.AsyncData;
+import gui.app.MonthAggregate;
 import gui.components.chart.SmoothedLineChart;
 import gui.components.chart.util.GraphDataConverter;
 import gui.components.chart.util.GraphDataPoint;
@@ -14,6 +17,8 @@ import gui.components.transaction.list.TransactionListView;
 import gui.components.util.BalanceLabel;
 import gui.components.util.Modal;
 import gui.components.util.RoundedPane;
+import gui.components.util.Skeleton;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.geometry.Pos;
@@ -26,15 +31,21 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import server.model.Account;
+import server.event.AccountChanged;
+import server.event.CategoryChanged;
+import server.event.ChangeBus;
+import server.event.ChangeEvent;
+import server.event.TransactionChanged;
+import server.event.TransactionsImported;
 import server.model.Transaction;
+import server.model.TransactionType;
+import server.service.AccountService;
+import server.utils.IntDoubleMap;
 
 public class OverviewPage extends BorderPane {
     private static final double VBOX_SPACING = 20;
     private static final double SUMMARY_PANE_SPACING = 20;
     private static final double DETAILS_PANE_SPACING = 20;
-    private static final String INCOME_TYPE = "Income";
-    private static final String EXPENSE_TYPE = "Expense";
 
     private final App app;
     private VBox headerPane;
@@ -44,10 +55,19 @@ public class OverviewPage extends BorderPane {
     private RoundedPane totalExpensePane;
     private RoundedPane balancePane;
     private RoundedPane transactionListPane;
+    private TransactionListView transactionListView;
+    private YearMonth listedMonth; // month transactionListView shows
+    private volatile boolean listInSync; // every change to listedMonth since it was filled has been applied to it
+    private int listedReloadCount;
     private RoundedPane incomeChart;
     private RoundedPane expenseChart; 
+    private SmoothedLineChart incomeLineChart;
+    private SmoothedLineChart expenseLineChart;
     private VBox chartsPane;
     private VBox mainLayout;
+    private List<Transaction> transactions;
+    private MonthAggregate aggregate;
+    private double totalBalance;
 
     private final BooleanProperty reloadRequest = new SimpleBooleanProperty(false);
     private static OverviewPage overviewPage;
@@ -63,6 +83,7 @@ public class OverviewPage extends BorderPane {
                 reloadRequest.set(false);  // Reset the property to false after reloading
             }
         });
+        subscribeToChanges();
     }
     
     public static OverviewPage getInstance() {
@@ -81,11 +102,8 @@ public class OverviewPage extends BorderPane {
 
     private void setupLayout() {
         mainLayout = createMainLayout();
-        loadHeader();
-        loadSummaryPane();
-        loadDetailsPane();
-        mainLayout.getChildren().addAll(headerPane, summaryPane, detailsPane);
         setCenter(createScrollPane(mainLayout));
+        reloadOverviewPage();
     }
 
     private void loadNavigationButtons() {
@@ -126,13 +144,41 @@ public class OverviewPage extends BorderPane {
         nextButton.setDisable(app.latestTime()); // Disable the next button if at the latest timestamp
     }
 
+    // Shows the header and placeholders at once, then the month's data when it has loaded
     private void reloadOverviewPage() {
-        // Update the header, summary, and details without clearing navigation buttons
-        loadHeader(); // Reload the header (it will not clear the buttons)
-        loadSummaryPane(); // Reload the summary pane
-        loadDetailsPane(); // Reload the details pane
-        mainLayout.getChildren().clear(); // Clear current main layout
-        mainLayout.getChildren().addAll(headerPane, summaryPane, detailsPane); // Add updated components
+        loadHeader();
+        loadSkeleton();
+        mainLayout.getChildren().setAll(headerPane, summaryPane, detailsPane);
+
+        YearMonth month = app.getSelectedMonth();
+        AsyncData.getInstance().load(this, () -> new MonthData(app.getTransactionList(month), app.getMonthAggregate(month), calculateBalance(month)), data -> {
+            transactions = data.transactions;
+            aggregate = data.aggregate;
+            totalBalance = data.balance;
+            loadSummaryPane();
+            loadDetailsPane();
+            mainLayout.getChildren().setAll(headerPane, summaryPane, detailsPane);
+        });
+    }
+
+    private void loadSkeleton() {
+        summaryPane = new HBox(SUMMARY_PANE_SPACING);
+        summaryPane.getStyleClass().add("summary-pane");
+        for (String title : new String[] { "Total Income", "Total Expense", "Total Balance" }) {
+            RoundedPane pane = Skeleton.pane(title, 1);
+            HBox.setHgrow(pane, Priority.ALWAYS);
+            summaryPane.getChildren().add(pane);
+        }
+
+        detailsPane = new HBox(DETAILS_PANE_SPACING);
+        detailsPane.getStyleClass().add("details-pane");
+        RoundedPane listPane = Skeleton.pane("Transaction List", 8);
+        HBox.setHgrow(listPane, Priority.ALWAYS);
+        VBox charts = new VBox(VBOX_SPACING, Skeleton.pane("Income Chart", 4), Skeleton.pane("Expense Chart", 4));
+        charts.getStyleClass().add("charts-pane");
+        HBox.setHgrow(charts, Priority.ALWAYS);
+        detailsPane.getChildren().addAll(listPane, charts);
+        VBox.setVgrow(detailsPane, Priority.ALWAYS);
     }
 
     private VBox createMainLayout() {
@@ -192,10 +238,7 @@ public class OverviewPage extends BorderPane {
     }
 
     private double calculateTotalIncome() {
-        return app.getTransactionList().stream()
-                .filter(t -> INCOME_TYPE.equals(t.getType()))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        return aggregate.getTotal(TransactionType.INCOME);
     }
 
     private void setupTotalExpensePane() {
@@ -207,24 +250,23 @@ public class OverviewPage extends BorderPane {
     }
 
     private double calculateTotalExpense() {
-        return -app.getTransactionList().stream()
-                .filter(t -> EXPENSE_TYPE.equals(t.getType()))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        return -aggregate.getTotal(TransactionType.EXPENSE);
     }
 
     private void setupBalancePane() {
         balancePane = new RoundedPane("Total Balance");
-        BalanceLabel balanceAmount = new BalanceLabel(calculateBalance());
-        balanceAmount.update(calculateBalance(), true);
+        BalanceLabel balanceAmount = new BalanceLabel(totalBalance);
+        balanceAmount.update(totalBalance, true);
         balanceAmount.getStyleClass().add("balance-label");
         balancePane.getChildren().add(balanceAmount);
         HBox.setHgrow(balancePane, Priority.ALWAYS);
     }
 
-    private double calculateBalance() {
+    // Runs on a loader thread
+    private double calculateBalance(YearMonth month) {
+        IntDoubleMap balances = new AccountService().getTimeRelatedBalances(month.getYear(), month.getMonthValue());
         return app.getAccountList().stream()
-                .mapToDouble(Account::getTimeRelatedBalance)
+                .mapToDouble(account -> balances.get(account.getId(), 0))
                 .sum();
     }
 
@@ -254,13 +296,61 @@ public class OverviewPage extends BorderPane {
         return stackPane;
     }
 
+    // Kept across reloads, so a save or a month switch only re-renders the rows that changed.
+    // Saved transactions reach it as change events; it is only refilled for another month or
+    // after a change that did not come as a single transaction.
     private TransactionListView createTransactionListView() {
-        List<Transaction> transactionList = app.getTransactionList();
-        TransactionListView transactionListView = new TransactionListView(transactionList);
-        transactionListView.getStyleClass().add("transaction-list");
+        YearMonth month = app.getSelectedMonth();
+        if (transactionListView == null) {
+            transactionListView = new TransactionListView(transactions);
+            transactionListView.getStyleClass().add("transaction-list");
+        } else if (!listInSync || !month.equals(listedMonth) || listedReloadCount != app.getReloadCount()) {
+            transactionListView.setTransactions(transactions);
+        }
+        listedMonth = month;
+        listedReloadCount = app.getReloadCount();
+        listInSync = true;
         return transactionListView;
     }
 
+    /*
+     * The same changes App edits or drops its cached months for: a single transaction is
+     * applied to the list in place, anything else leaves it to be refilled on the next reload.
+     */
+
+    private void subscribeToChanges() {
+        ChangeBus bus = ChangeBus.getInstance();
+        bus.subscribe(TransactionChanged.class, event -> {
+            if (Platform.isFxApplicationThread()) {
+                applyToList(event);
+            } else {
+                Platform.runLater(() -> applyToList(event));
+            }
+        });
+        bus.subscribe(TransactionsImported.class, event -> listInSync = false);
+        bus.subscribe(AccountChanged.class, event -> {
+            if (event.getKind() == ChangeEvent.Kind.DELETED) listInSync = false;
+        });
+        bus.subscribe(CategoryChanged.class, event -> {
+            if (event.getKind() == ChangeEvent.Kind.DELETED) listInSync = false;
+        });
+    }
+
+    private void applyToList(TransactionChanged event) {
+        if (transactionListView == null || listedMonth == null) return;
+        Transaction before = event.getBefore();
+        Transaction after = event.getAfter();
+        boolean wasListed = before != null && YearMonth.from(before.getDateTime()).equals(listedMonth);
+        boolean isListed = after != null && YearMonth.from(after.getDateTime()).equals(listedMonth);
+        if (wasListed && isListed) {
+            transactionListView.update(after);
+        } else if (wasListed) {
+            transactionListView.remove(before);
+        } else if (isListed) {
+            transactionListView.add(after);
+        }
+    }
+
     private Button createAddTransactionButton(TransactionListView transactionListView) {
         Button addButton = new Button("+");
         addButton.getStyleClass().addAll("add-button", "border-blue", "fill-blue", "background-neutral");
@@ -286,38 +376,54 @@ public class OverviewPage extends BorderPane {
 
     private void setupIncomeChart() {
         incomeChart = new RoundedPane("Income Chart");
-        List<Transaction> transactionList = app.getTransactionList();
-        List<GraphDataPoint> incomeData = GraphDataConverter.convertToIncome(transactionList);
+        List<GraphDataPoint> incomeData = GraphDataConverter.convertToIncome(aggregate);
         
         if (incomeData.isEmpty()) {
             Label noDataLabel = new Label("No data");
             noDataLabel.setTextFill(Color.GRAY);
             incomeChart.getChildren().add(noDataLabel);
         } else {
-            SmoothedLineChart incomeLineChart = new SmoothedLineChart();
-            incomeLineChart.addSeries(incomeData, INCOME_TYPE, Color.valueOf("#66c2a5"));
+            incomeLineChart = showSeries(incomeLineChart, incomeData, TransactionType.INCOME.getLabel(), Color.valueOf("#66c2a5"));
             incomeChart.getChildren().add(incomeLineChart);
-            incomeLineChart.getStyleClass().add("line-chart");
         }
         VBox.setVgrow(incomeChart, Priority.ALWAYS);
     }
 
     private void setupExpenseChart() {
         expenseChart = new RoundedPane("Expense Chart");
-        List<Transaction> transactionList = app.getTransactionList();
-        List<GraphDataPoint> expenseData = GraphDataConverter.convertToExpense(transactionList);
+        List<GraphDataPoint> expenseData = GraphDataConverter.convertToExpense(aggregate);
         
         if (expenseData.isEmpty()) {
             Label noDataLabel = new Label("No data");
             noDataLabel.setTextFill(Color.GRAY);
             expenseChart.getChildren().add(noDataLabel);
         } else {
-            SmoothedLineChart expenseLineChart = new SmoothedLineChart();
-            expenseLineChart.addSeries(expenseData, EXPENSE_TYPE, Color.valueOf("#d53e4f"));
+            expenseLineChart = showSeries(expenseLineChart, expenseData, TransactionType.EXPENSE.getLabel(), Color.valueOf("#d53e4f"));
             expenseChart.getChildren().add(expenseLineChart);
-            expenseLineChart.getStyleClass().add("line-chart");
         }
         VBox.setVgrow(expenseChart, Priority.ALWAYS);
     }
 
+    // Charts are kept across reloads like the list view, so a reload patches their data points in place
+    private static SmoothedLineChart showSeries(SmoothedLineChart chart, List<GraphDataPoint> data, String name, Color color) {
+        if (chart == null) {
+            chart = new SmoothedLineChart();
+            chart.getStyleClass().add("line-chart");
+        }
+        chart.setSeries(List.of(new SmoothedLineChart.ChartSeries(data, name, color)));
+        return chart;
+    }
+
+    // What the page shows for one month, loaded together off the FX thread
+    private static class MonthData {
+        private final List<Transaction> transactions;
+        private final MonthAggregate aggregate;
+        private final double balance;
+
+        private MonthData(List<Transaction> transactions, MonthAggregate aggregate, double balance) {
+            this.transactions = transactions;
+            this.aggregate = aggregate;
+            this.balance = balance;
+        }
+    }
 }
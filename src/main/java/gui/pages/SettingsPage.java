@@ -9,23 +9,23 @@ import javafx.stage.FileChooser;
 import javafx.util.Duration;
 
 import org.controlsfx.control.ToggleSwitch;
+import server.dao.ConnectionPool;
+import server.dao.SchemaMigrator;
 import server.model.Account;
 import server.model.Category;
+import server.model.TransactionType;
 import server.service.AccountService;
 import server.service.CategoryService;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
 
 import gui.app.App;
 import gui.app.AppSettings;
+import gui.app.AsyncData;
 import gui.components.form.ExportDataForm;
+import gui.components.form.ImportDataForm;
 import gui.components.form.account.AddAccountForm;
 import gui.components.form.account.AddSavingForm;
 import gui.components.form.account.EditAccountForm;
@@ -33,7 +33,6 @@ import gui.components.form.account.EditSavingForm;
 import gui.components.form.category.AddCategoryForm;
 import gui.components.form.category.EditCategoryForm;
 import gui.components.util.ConfirmationModal;
-import gui.components.util.ErrorModal;
 import gui.components.util.Modal;
 
 public class SettingsPage extends ScrollPane {
@@ -266,8 +265,8 @@ public class SettingsPage extends ScrollPane {
     */
 
     private HBox createCategorySettingsSection() {
-        VBox incomeCategoryColumn = createCategoryColumn("Income Categories", "income", this::addIncomeCategory);
-        VBox expenseCategoryColumn = createCategoryColumn("Expense Categories", "expense", this::addExpenseCategory);
+        VBox incomeCategoryColumn = createCategoryColumn("Income Categories", TransactionType.INCOME, this::addIncomeCategory);
+        VBox expenseCategoryColumn = createCategoryColumn("Expense Categories", TransactionType.EXPENSE, this::addExpenseCategory);
         
         HBox section = new HBox(40, incomeCategoryColumn, expenseCategoryColumn);
         HBox.setHgrow(incomeCategoryColumn, Priority.ALWAYS);
@@ -275,12 +274,12 @@ public class SettingsPage extends ScrollPane {
         return section;
     }
 
-    private VBox createCategoryColumn(String titleText, String categoryType, Runnable addAction) {
+    private VBox createCategoryColumn(String titleText, TransactionType categoryType, Runnable addAction) {
         VBox column = new VBox(0);
         column.getChildren().add(createHeaderWithAddButton(titleText, addAction));
         
         List<Category> categories = App.getInstance().getCategoryList();
-        categories.stream().filter(category -> category.getType().equals(categoryType))
+        categories.stream().filter(category -> category.getType() == categoryType)
                 .map(this::createCategoryBox).forEach(column.getChildren()::add);
         return column;
     }
@@ -302,15 +301,18 @@ public class SettingsPage extends ScrollPane {
     }
     
     /*
-     * Section: Export
+     * Section: Import and export
     */
 
     private VBox createExportSection() {
-        Label header = createHeader("Export");
+        Label header = createHeader("Import & Export");
+        Button importButton = new Button("Import Data");
+        importButton.getStyleClass().addAll("fill-blue", "border-blue");
+        importButton.setOnAction(e -> handleImport());
         Button exportButton = new Button("Export Data");
         exportButton.getStyleClass().addAll("fill-blue", "border-blue");
         exportButton.setOnAction(e -> handleExport());
-        return new VBox(10, header, exportButton);
+        return new VBox(10, header, importButton, exportButton);
     }
     
     /*
@@ -327,9 +329,25 @@ public class SettingsPage extends ScrollPane {
         importButton.getStyleClass().addAll("border-blue", "fill-blue");
         importButton.setOnAction(e -> handleImportDatabase());
 
-        return new VBox(10, header, exportButton, importButton);
+        Button verifyButton = new Button("Check Balance History");
+        verifyButton.getStyleClass().addAll("border-blue", "fill-blue");
+        verifyButton.setOnAction(e -> handleVerifyBalanceHistory());
+
+        return new VBox(10, header, exportButton, importButton, verifyButton);
+    }
+
+    // Reads every transaction, so it runs off the FX thread; failures are reported by AsyncData
+    private void handleVerifyBalanceHistory() {
+        AsyncData.getInstance().load("verify-balance-history", () -> new AccountService().verifyBalanceHistory(), mismatches -> {
+            String message = mismatches == 0
+                    ? "Balance history is consistent with your transactions."
+                    : "Repaired " + mismatches + " monthly balance entries.";
+            new Alert(Alert.AlertType.INFORMATION, message).showAndWait();
+            OverviewPage.getInstance().requestReloading();
+        });
     }
     
+    // VACUUM INTO copies what the pool's connections see, including commits still in the WAL
     private void handleExportDatabase() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Export Database");
@@ -337,16 +355,15 @@ public class SettingsPage extends ScrollPane {
         File file = fileChooser.showSaveDialog(getScene().getWindow());
 
         if (file != null) {
-            try {
-                Path source = Paths.get("money_management.db");  // Replace with actual path
-                Files.copy(source, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                new Alert(Alert.AlertType.INFORMATION, "Database exported successfully.").showAndWait();
-            } catch (IOException e) {
-                new ErrorModal("Failed to export database: " + e.getMessage()).show();
-            }
+            AsyncData.getInstance().load("export-database", () -> {
+                ConnectionPool.getInstance().backupTo(file.toPath());
+                return null;
+            }, ignored -> new Alert(Alert.AlertType.INFORMATION, "Database exported successfully.").showAndWait());
         }
     }
     
+    // The pool is drained and restarted around the copy, so no open connection writes its old WAL over the
+    // imported file; an older backup is then migrated to the current schema before anything reads it
     private void handleImportDatabase() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Import Database");
@@ -354,16 +371,16 @@ public class SettingsPage extends ScrollPane {
         File file = fileChooser.showOpenDialog(getScene().getWindow());
 
         if (file != null) {
-            try {
-                Path destination = Paths.get("money_management.db");  // Replace with actual path
-                Files.copy(file.toPath(), destination, StandardCopyOption.REPLACE_EXISTING);
-                new Alert(Alert.AlertType.INFORMATION, "Database imported successfully.").showAndWait();
+            AsyncData.getInstance().load("import-database", () -> {
+                ConnectionPool.restoreFrom(file.toPath());
+                new SchemaMigrator().migrate();
                 App.getInstance().reload();
+                return null;
+            }, ignored -> {
+                new Alert(Alert.AlertType.INFORMATION, "Database imported successfully.").showAndWait();
                 refresh();
                 OverviewPage.getInstance().requestReloading();
-            } catch (IOException e) {
-                new ErrorModal("Failed to import database: " + e.getMessage()).show();
-            }
+            });
         }
     }
 
@@ -388,13 +405,13 @@ public class SettingsPage extends ScrollPane {
 
     private void addIncomeCategory() {
         Modal modal = new Modal();
-        modal.setContent(new AddCategoryForm(modal, "Income", this));  // Pass "Income" as the type
+        modal.setContent(new AddCategoryForm(modal, TransactionType.INCOME, this));
         modal.show();
     }
 
     private void addExpenseCategory() {
         Modal modal = new Modal();
-        modal.setContent(new AddCategoryForm(modal, "Expense", this));  // Pass "Expense" as the type
+        modal.setContent(new AddCategoryForm(modal, TransactionType.EXPENSE, this));
         modal.show();
     }
 
@@ -419,6 +436,12 @@ public class SettingsPage extends ScrollPane {
     	}
     }
     
+    private void handleImport () {
+    	Modal modal = new Modal();
+    	modal.setContent(new ImportDataForm(modal, this::refresh));
+    	modal.show();
+    }
+
     private void handleExport () {
     	Modal modal = new Modal();
     	modal.setContent(new ExportDataForm(modal));
@@ -3,8 +3,13 @@ package server.dao;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import server.event.AccountChanged;
+import server.event.BalanceChanged;
+import server.event.ChangeEvent;
 import server.model.Account;
+import server.utils.IntDoubleMap;
 
 public class AccountDAO extends BaseDAO {
 
@@ -12,26 +17,30 @@ public class AccountDAO extends BaseDAO {
 
     // Helper method to manage connection and perform the operation
     private <T> T executeWithConnection(SQLFunction<Connection, T> sqlFunction) {
-        getConnection();
         try {
-            return sqlFunction.apply(connection);
+            Connection connection = getConnection();
+            try {
+                return sqlFunction.apply(connection);
+            } finally {
+                closeConnection();
+            }
         } catch (SQLException e) {
             handleSQLException(e); // Handle the SQLException
             return null; // Return null or a default value if needed
-        } finally {
-            closeConnection();
         }
     }
 
     public void insert(Account account) {
         String sql = "INSERT INTO accounts (name, group_name, balance, goal) VALUES (?, ?, ?, ?)";
         executeWithConnection(connection -> {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
+            PreparedStatement pstmt = prepare(sql);
             pstmt.setString(1, account.getName());
             pstmt.setString(2, account.getGroup());
             pstmt.setDouble(3, account.getBalance());
             pstmt.setDouble(4, account.getGoal());
             pstmt.executeUpdate();
+            account.setId(lastInsertId());
+            publish(new AccountChanged(ChangeEvent.Kind.INSERTED, account.getId(), account));
             return null;
         });
     }
@@ -39,90 +48,101 @@ public class AccountDAO extends BaseDAO {
     public void update(Account account) {
         String sql = "UPDATE accounts SET name = ?, group_name = ?, balance = ?, goal = ? WHERE id = ?";
         executeWithConnection(connection -> {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
+            PreparedStatement pstmt = prepare(sql);
             pstmt.setString(1, account.getName());
             pstmt.setString(2, account.getGroup());
             pstmt.setDouble(3, account.getBalance());
             pstmt.setDouble(4, account.getGoal());
             pstmt.setInt(5, account.getId());
             pstmt.executeUpdate();
+            publish(new AccountChanged(ChangeEvent.Kind.UPDATED, account.getId(), account));
             return null;
         });
     }
 
+    // Deletes the account and every transaction touching it, then recomputes the balance history
+    // of the remaining accounts, which loses the transfers to and from this one
     public void delete(int accountId) {
         String deleteTransactionsSql = "DELETE FROM transactions WHERE source_account = ? OR destination_account = ?";
         String deleteAccountsSql = "DELETE FROM accounts WHERE id = ?";
 
-        // First, delete associated transactions
-        executeWithConnection(connection -> {
-            try (PreparedStatement pstmtTransactions = connection.prepareStatement(deleteTransactionsSql)) {
-                pstmtTransactions.setInt(1, accountId);
-                pstmtTransactions.setInt(2, accountId);
-                pstmtTransactions.executeUpdate();
-            }
+        executeWithConnection(connection -> inTransaction(c -> {
+            // First, delete associated transactions
+            PreparedStatement pstmtTransactions = prepare(deleteTransactionsSql);
+            pstmtTransactions.setInt(1, accountId);
+            pstmtTransactions.setInt(2, accountId);
+            pstmtTransactions.executeUpdate();
+
+            // Then, delete the account itself
+            PreparedStatement pstmtAccounts = prepare(deleteAccountsSql);
+            pstmtAccounts.setInt(1, accountId);
+            pstmtAccounts.executeUpdate();
+
+            new BalanceSnapshotDAO().rebuild();
+            publish(new AccountChanged(ChangeEvent.Kind.DELETED, accountId, null));
             return null;
-        });
+        }));
+    }
 
-        // Then, delete the account itself
-        executeWithConnection(connection -> {
-            try (PreparedStatement pstmtAccounts = connection.prepareStatement(deleteAccountsSql)) {
-                pstmtAccounts.setInt(1, accountId);
-                pstmtAccounts.executeUpdate();
+    // End-of-month balance of every account in one query; the same lookups as getBalanceAtEndOfMonth per row
+    public IntDoubleMap getBalancesAtEndOfMonth(int month, int year) {
+        String sql = "SELECT a.id, a.balance "
+                + "- COALESCE((SELECT cumulative_change FROM account_month_balances "
+                + "            WHERE account_id = a.id ORDER BY period DESC LIMIT 1), 0) "
+                + "+ COALESCE((SELECT cumulative_change FROM account_month_balances "
+                + "            WHERE account_id = a.id AND period <= ? ORDER BY period DESC LIMIT 1), 0) "
+                + "AS end_of_month_balance "
+                + "FROM accounts a";
+
+        IntDoubleMap balances = executeWithConnection(connection -> {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setInt(1, BalanceSnapshotDAO.periodOf(year, month));
+
+            IntDoubleMap result = new IntDoubleMap();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.put(rs.getInt("id"), rs.getDouble("end_of_month_balance"));
+                }
             }
-            return null;
+            return result;
         });
+        return balances == null ? new IntDoubleMap() : balances;
     }
 
-    
+    // Current balance minus everything booked after the month: two primary-key lookups in the
+    // monthly snapshots (see BalanceSnapshotDAO) instead of summing the later transactions
     public double getBalanceAtEndOfMonth(int accountId, int month, int year) {
-        String sql = "WITH AccountTransactions AS ( " +
-                     "SELECT " +
-                     "    date_time, " +
-                     "    CASE " +
-                     "        WHEN type = 'Income' THEN -amount " +
-                     "        WHEN type = 'Expense' THEN amount " +
-                     "        WHEN type = 'Transfer' AND source_account = ? THEN amount " +
-                     "        WHEN type = 'Transfer' AND destination_account = ? THEN -amount " +
-                     "        ELSE 0 " +
-                     "    END AS balance_change " +
-                     "FROM transactions " +
-                     "WHERE " +
-                     "    (source_account = ? OR destination_account = ?) " +
-                     "    AND date_time >= strftime('%s', ?, 'start of month', '+1 month') * 1000 " + // First day of next month
-                     ") " +
-                     "SELECT " +
-                     "    (SELECT balance FROM accounts WHERE id = ?) + COALESCE(SUM(balance_change), 0) AS end_of_month_balance " +
-                     "FROM AccountTransactions;";
-
-        // Format the target date
-        String targetDate = String.format("%04d-%02d-01", year, month); // Format: YYYY-MM
-
-        return executeWithConnection(connection -> {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            pstmt.setInt(1, accountId);
+        String sql = "SELECT a.balance "
+                + "- COALESCE((SELECT cumulative_change FROM account_month_balances "
+                + "            WHERE account_id = a.id ORDER BY period DESC LIMIT 1), 0) "
+                + "+ COALESCE((SELECT cumulative_change FROM account_month_balances "
+                + "            WHERE account_id = a.id AND period <= ? ORDER BY period DESC LIMIT 1), 0) "
+                + "AS end_of_month_balance "
+                + "FROM accounts a WHERE a.id = ?";
+
+        Double balance = executeWithConnection(connection -> {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setInt(1, BalanceSnapshotDAO.periodOf(year, month));
             pstmt.setInt(2, accountId);
-            pstmt.setInt(3, accountId);
-            pstmt.setInt(4, accountId);
-            pstmt.setString(5, targetDate);
-            pstmt.setInt(6, accountId);
-
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getDouble("end_of_month_balance");
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble("end_of_month_balance");
+                }
             }
             return 0.0; // Default value if no result found
         });
+        return balance == null ? 0.0 : balance;
     }
 
     public List<Account> findAll() {
         String sql = "SELECT * FROM accounts";
         return executeWithConnection(connection -> {
             List<Account> accounts = new ArrayList<>();
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                accounts.add(mapRowToAccount(rs));
+            try (ResultSet rs = prepare(sql).executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(mapRowToAccount(rs));
+                }
             }
             return accounts;
         });
@@ -131,44 +151,58 @@ public class AccountDAO extends BaseDAO {
     public Account findAccount(int id) {
         String sql = "SELECT * FROM accounts WHERE id = ?";
         return executeWithConnection(connection -> {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
+            PreparedStatement pstmt = prepare(sql);
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return mapRowToAccount(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRowToAccount(rs);
+                }
             }
             return null;
         });
     }
 
     public void adjustAccountBalance(int accountId, double amount) {
-        String updateAccountBalanceSQL = "UPDATE accounts SET balance = ? WHERE id = ?";
         executeWithConnection(connection -> {
-            PreparedStatement pstmt = connection.prepareStatement(updateAccountBalanceSQL);
-            double currentBalance = getAccountBalance(accountId, connection);
-            pstmt.setDouble(1, currentBalance + amount);
-            pstmt.setInt(2, accountId);
-            pstmt.executeUpdate();
+            addToBalance(accountId, amount);
             return null;
         });
     }
 
-    // Helper function to get the current account balance
-    private double getAccountBalance(int accountId, Connection connection) {
-        String getBalanceSQL = "SELECT balance FROM accounts WHERE id = ?";
+    // Single-statement read-modify-write, so concurrent adjustments cannot lose updates.
+    // Runs on the caller's leased connection and joins any transaction open on it.
+    void addToBalance(int accountId, double amount) throws SQLException {
+        String sql = "UPDATE accounts SET balance = balance + ? WHERE id = ?";
+        getConnection();
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setDouble(1, amount);
+            pstmt.setInt(2, accountId);
+            pstmt.executeUpdate();
+            publish(new BalanceChanged(accountId, amount));
+        } finally {
+            closeConnection();
+        }
+    }
+
+    // Applies a net amount per account id as one JDBC batch on the caller's leased connection
+    void addToBalances(Map<Integer, Double> deltas) throws SQLException {
+        if (deltas.isEmpty()) return;
+        String sql = "UPDATE accounts SET balance = balance + ? WHERE id = ?";
+        getConnection();
         try {
-            PreparedStatement stmt = connection.prepareStatement(getBalanceSQL);
-            stmt.setInt(1, accountId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getDouble("balance");
-            } else {
-                // Handle the case when the account is not found
-                return 0.0; // Return a default value or handle as needed
+            PreparedStatement pstmt = prepare(sql);
+            for (Map.Entry<Integer, Double> delta : deltas.entrySet()) {
+                pstmt.setDouble(1, delta.getValue());
+                pstmt.setInt(2, delta.getKey());
+                pstmt.addBatch();
             }
-        } catch (SQLException e) {
-            handleSQLException(e);
-            return 0.0; // Return a default value or handle as needed
+            pstmt.executeBatch();
+            for (Map.Entry<Integer, Double> delta : deltas.entrySet()) {
+                publish(new BalanceChanged(delta.getKey(), delta.getValue()));
+            }
+        } finally {
+            closeConnection();
         }
     }
 
@@ -189,10 +223,4 @@ public class AccountDAO extends BaseDAO {
         System.err.println("SQL Exception: " + e.getMessage());
         e.printStackTrace(); // Print stack trace for debugging
     }
-
-    // Functional interface for SQL operations
-    @FunctionalInterface
-    public interface SQLFunction<T, R> {
-        R apply(T t) throws SQLException;
-    }
 }
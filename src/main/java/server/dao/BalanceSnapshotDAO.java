@@ -0,0 +1,191 @@
+package server.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import server.model.TransactionType;
+import server.utils.TimeUtils;
+
+/**
+ * Maintains {@code account_month_balances}: for every account and every month
+ * with activity, the net change the account's transactions made up to the end of
+ * that month ({@code cumulative_change}).
+ * <p>
+ * Closing balances are derived from it rather than stored, so editing an account's
+ * balance directly needs no snapshot update:
+ * <pre>
+ *   closing(M) = accounts.balance - latest cumulative_change + cumulative_change at or before M
+ * </pre>
+ * Each of those is one primary-key lookup, so a historical balance costs the same
+ * however far back it is. Months are local calendar months ({@code yyyymm}), the
+ * same boundaries the month views use.
+ * <p>
+ * {@link TransactionDAO} keeps the table current inside each write's SQL transaction.
+ * Writes that bypass it (deleting an account or category deletes its transactions)
+ * call {@link #rebuild()}, which can also be run on demand after {@link #verify()}.
+ */
+public class BalanceSnapshotDAO extends BaseDAO {
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS account_month_balances ("
+            + "account_id INTEGER NOT NULL, period INTEGER NOT NULL, cumulative_change REAL NOT NULL, "
+            + "PRIMARY KEY (account_id, period)) WITHOUT ROWID";
+
+    private static final double TOLERANCE = 1e-6;
+
+    public static int periodOf(LocalDateTime dateTime) {
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+
+    public static int periodOf(int year, int month) {
+        return year * 100 + month;
+    }
+
+    // Packs an (account, period) pair into one sortable key: by account, then by period
+    static long key(int accountId, int period) {
+        return ((long) accountId << 32) | period;
+    }
+
+    /**
+     * Records that {@code amount} was added to {@code accountId} in {@code period}:
+     * every snapshot from that month on moves by {@code amount}. Runs on the caller's
+     * connection and joins its transaction.
+     */
+    void addChange(int accountId, int period, double amount) throws SQLException {
+        // Start the month at the previous month's total if it has no row yet
+        String seedSql = "INSERT OR IGNORE INTO account_month_balances (account_id, period, cumulative_change) "
+                + "VALUES (?, ?, COALESCE((SELECT cumulative_change FROM account_month_balances "
+                + "WHERE account_id = ? AND period < ? ORDER BY period DESC LIMIT 1), 0))";
+        String updateSql = "UPDATE account_month_balances SET cumulative_change = cumulative_change + ? "
+                + "WHERE account_id = ? AND period >= ?";
+        getConnection();
+        try {
+            PreparedStatement seed = prepare(seedSql);
+            seed.setInt(1, accountId);
+            seed.setInt(2, period);
+            seed.setInt(3, accountId);
+            seed.setInt(4, period);
+            seed.executeUpdate();
+
+            PreparedStatement update = prepare(updateSql);
+            update.setDouble(1, amount);
+            update.setInt(2, accountId);
+            update.setInt(3, period);
+            update.executeUpdate();
+        } finally {
+            closeConnection();
+        }
+    }
+
+    // Applies changes keyed by key(accountId, period), e.g. the net result of a bulk import
+    void addChanges(Map<Long, Double> changes) throws SQLException {
+        for (Map.Entry<Long, Double> change : changes.entrySet()) {
+            long key = change.getKey();
+            addChange((int) (key >>> 32), (int) key, change.getValue());
+        }
+    }
+
+    // Recomputes the whole table from the transactions table
+    public void rebuild() throws SQLException {
+        inTransaction(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("DELETE FROM account_month_balances");
+            }
+            PreparedStatement insert = prepare("INSERT INTO account_month_balances (account_id, period, cumulative_change) VALUES (?, ?, ?)");
+            for (Map.Entry<Long, Double> snapshot : computeSnapshots(connection).entrySet()) {
+                long key = snapshot.getKey();
+                insert.setInt(1, (int) (key >>> 32));
+                insert.setInt(2, (int) key);
+                insert.setDouble(3, snapshot.getValue());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            return null;
+        });
+    }
+
+    /**
+     * Compares the table with a fresh computation from the transactions table.
+     *
+     * @return the number of (account, month) snapshots that disagree; 0 if the table is correct
+     */
+    public int verify() throws SQLException {
+        Connection connection = getConnection();
+        try {
+            NavigableMap<Long, Double> expected = computeSnapshots(connection);
+            NavigableMap<Long, Double> actual = new TreeMap<>();
+            try (ResultSet rs = prepare("SELECT account_id, period, cumulative_change FROM account_month_balances").executeQuery()) {
+                while (rs.next()) {
+                    actual.put(key(rs.getInt("account_id"), rs.getInt("period")), rs.getDouble("cumulative_change"));
+                }
+            }
+
+            // Rows are sparse and carried forward, so compare the value in force at every month either side has
+            NavigableMap<Long, Double> keys = new TreeMap<>(expected);
+            keys.putAll(actual);
+            int mismatches = 0;
+            for (long key : keys.keySet()) {
+                double want = valueAt(expected, key);
+                double have = valueAt(actual, key);
+                if (Math.abs(want - have) > TOLERANCE * Math.max(1, Math.abs(want))) mismatches++;
+            }
+            return mismatches;
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private static double valueAt(NavigableMap<Long, Double> snapshots, long key) {
+        Map.Entry<Long, Double> entry = snapshots.floorEntry(key);
+        return entry != null && (entry.getKey() >>> 32) == (key >>> 32) ? entry.getValue() : 0;
+    }
+
+    // The type column holds labels until schema migration 4 (which runs after this table's) and codes afterwards
+    private static TransactionType readType(ResultSet rs) throws SQLException {
+        Object value = rs.getObject("type");
+        return value instanceof Number ? TransactionType.fromCode(((Number) value).intValue()) : TransactionType.fromLabel((String) value);
+    }
+
+    // Streams the transactions once and returns cumulative changes keyed by key(accountId, period)
+    private NavigableMap<Long, Double> computeSnapshots(Connection connection) throws SQLException {
+        String sql = "SELECT date_time, amount, type, source_account, destination_account FROM transactions";
+        NavigableMap<Long, Double> snapshots = new TreeMap<>();
+        try (ResultSet rs = prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                Timestamp timestamp = rs.getTimestamp("date_time");
+                int period = periodOf(TimeUtils.toLocalDateTime(timestamp));
+                double amount = rs.getDouble("amount");
+                TransactionType type = readType(rs);
+                int source = rs.getInt("source_account");
+                if (type == TransactionType.INCOME) {
+                    snapshots.merge(key(source, period), amount, Double::sum);
+                } else if (type == TransactionType.EXPENSE) {
+                    snapshots.merge(key(source, period), -amount, Double::sum);
+                } else if (type == TransactionType.TRANSFER) {
+                    snapshots.merge(key(source, period), -amount, Double::sum);
+                    snapshots.merge(key(rs.getInt("destination_account"), period), amount, Double::sum);
+                }
+            }
+        }
+
+        // Turn per-month changes into running totals per account
+        int account = -1;
+        double running = 0;
+        for (Map.Entry<Long, Double> entry : snapshots.entrySet()) {
+            int entryAccount = (int) (entry.getKey() >>> 32);
+            if (entryAccount != account) {
+                account = entryAccount;
+                running = 0;
+            }
+            running += entry.getValue();
+            entry.setValue(running);
+        }
+        return snapshots;
+    }
+}
@@ -1,30 +1,93 @@
 package server.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
+import server.event.ChangeBus;
+import server.event.ChangeEvent;
 
 public abstract class BaseDAO {
-    private static final String URL = "jdbc:sqlite:money_management.db"; // Replace with your database path
-    protected static Connection connection;
 
-    public static Connection getConnection() {
-        try {
-            connection = DriverManager.getConnection(URL);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return connection;
+    // Events raised inside the SQL transaction open on this thread, published when it commits
+    private static final ThreadLocal<List<ChangeEvent>> PENDING_EVENTS = new ThreadLocal<>();
+
+    // Leases the current thread's pooled connection; nested calls on the same thread share it
+    protected Connection getConnection() throws SQLException {
+        return ConnectionPool.getInstance().acquire();
+    }
+
+    // Cached statement on the current thread's connection; owned by the cache, so callers must not close it
+    protected PreparedStatement prepare(String sql) throws SQLException {
+        return ConnectionPool.getInstance().prepareStatement(sql);
     }
-	
+
 	public void closeConnection() {
-        if (connection != null) {
+        ConnectionPool.getInstance().release();
+    }
+
+    /**
+     * Runs {@code work} as one SQL transaction on the current thread's connection:
+     * committed if it returns normally, rolled back if it throws. A call made while a
+     * transaction is already open on this thread (e.g. a DAO method invoked from
+     * another DAO's transaction) joins the outer transaction instead of committing early.
+     * Events {@link #publish published} inside it are delivered after the commit.
+     */
+    protected <T> T inTransaction(SQLFunction<Connection, T> work) throws SQLException {
+        Connection connection = getConnection();
+        List<ChangeEvent> events = null;
+        try {
+            if (!connection.getAutoCommit()) {
+                return work.apply(connection);
+            }
+            connection.setAutoCommit(false);
+            PENDING_EVENTS.set(new ArrayList<>());
             try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+                T result = work.apply(connection);
+                connection.commit();
+                events = PENDING_EVENTS.get();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                PENDING_EVENTS.remove();
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            closeConnection();
+            if (events != null) {
+                for (ChangeEvent event : events) ChangeBus.getInstance().publish(event);
             }
         }
     }
+
+    // Publishes now, or when the SQL transaction open on this thread commits; dropped if it rolls back
+    protected void publish(ChangeEvent event) {
+        List<ChangeEvent> pending = PENDING_EVENTS.get();
+        if (pending != null) {
+            pending.add(event);
+        } else {
+            ChangeBus.getInstance().publish(event);
+        }
+    }
+
+    // Id assigned by the last INSERT on the current thread's connection
+    protected int lastInsertId() throws SQLException {
+        getConnection();
+        try (ResultSet rs = prepare("SELECT last_insert_rowid()").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } finally {
+            closeConnection();
+        }
+    }
+
+    // Functional interface for SQL operations
+    @FunctionalInterface
+    public interface SQLFunction<T, R> {
+        R apply(T t) throws SQLException;
+    }
 }
@@ -4,7 +4,10 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
+import server.event.CategoryChanged;
+import server.event.ChangeEvent;
 import server.model.Category;
+import server.model.TransactionType;
 
 public class CategoryDAO extends BaseDAO {
 
@@ -12,12 +15,17 @@ public class CategoryDAO extends BaseDAO {
         String sql = "INSERT INTO categories (name, budget, type) VALUES (?, ?, ?)";
         try {
             getConnection();
-			PreparedStatement stmt = connection.prepareStatement(sql);
-            stmt.setString(1, category.getName());
-            stmt.setDouble(2, category.getBudget());
-            stmt.setString(3, category.getType());
-            stmt.executeUpdate();
-            closeConnection();
+            try {
+                PreparedStatement stmt = prepare(sql);
+                stmt.setString(1, category.getName());
+                stmt.setDouble(2, category.getBudget());
+                stmt.setInt(3, category.getType().getCode());
+                stmt.executeUpdate();
+                category.setId(lastInsertId());
+                publish(new CategoryChanged(ChangeEvent.Kind.INSERTED, category.getId(), category));
+            } finally {
+                closeConnection();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -27,12 +35,16 @@ public class CategoryDAO extends BaseDAO {
         String sql = "UPDATE categories SET name = ?, budget = ? WHERE id = ?";
         try {
             getConnection();
-			PreparedStatement stmt = connection.prepareStatement(sql);
-            stmt.setString(1, category.getName());
-            stmt.setDouble(2, category.getBudget());
-            stmt.setInt(3, category.getId());
-            stmt.executeUpdate();
-            closeConnection();
+            try {
+                PreparedStatement stmt = prepare(sql);
+                stmt.setString(1, category.getName());
+                stmt.setDouble(2, category.getBudget());
+                stmt.setInt(3, category.getId());
+                stmt.executeUpdate();
+                publish(new CategoryChanged(ChangeEvent.Kind.UPDATED, category.getId(), category));
+            } finally {
+                closeConnection();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -41,96 +53,79 @@ public class CategoryDAO extends BaseDAO {
     public void delete(int categoryId) {
         String deleteTransactionsSql = "DELETE FROM transactions WHERE category = ?";
         String deleteCategorySql = "DELETE FROM categories WHERE id = ?";
-        
-        try {
-            getConnection();
 
-            // First, delete related transactions
-            PreparedStatement stmtTransactions = connection.prepareStatement(deleteTransactionsSql);
-            stmtTransactions.setInt(1, categoryId);
-            stmtTransactions.executeUpdate();
-            stmtTransactions.close();
+        try {
+            inTransaction(connection -> {
+                // First, delete related transactions
+                PreparedStatement stmtTransactions = prepare(deleteTransactionsSql);
+                stmtTransactions.setInt(1, categoryId);
+                stmtTransactions.executeUpdate();
 
-            // Then, delete the category
-            PreparedStatement stmtCategory = connection.prepareStatement(deleteCategorySql);
-            stmtCategory.setInt(1, categoryId);
-            stmtCategory.executeUpdate();
-            stmtCategory.close();
+                // Then, delete the category
+                PreparedStatement stmtCategory = prepare(deleteCategorySql);
+                stmtCategory.setInt(1, categoryId);
+                stmtCategory.executeUpdate();
 
+                // The deleted transactions no longer count towards the balance history
+                new BalanceSnapshotDAO().rebuild();
+                publish(new CategoryChanged(ChangeEvent.Kind.DELETED, categoryId, null));
+                return null;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            closeConnection();
         }
     }
 
 
     public List<Category> findAll() {
-        List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories";
-        try {
-            getConnection();
-			Statement stmt = connection.createStatement();
-			ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                categories.add(mapRowToCategory(rs));
-            }
-            closeConnection();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return categories;
+        return findWhere("SELECT * FROM categories");
     }
-    
+
     public List<Category> findAllIncome() {
-        List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories WHERE type='income'";
-        try {
-            getConnection();
-			Statement stmt = connection.createStatement();
-			ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                categories.add(mapRowToCategory(rs));
-            }
-            closeConnection();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return categories;
+        return findWhere("SELECT * FROM categories WHERE type = " + TransactionType.INCOME.getCode());
     }
-    
+
     public List<Category> findAllExpense() {
-        List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories WHERE type='expense'";
+        return findWhere("SELECT * FROM categories WHERE type = " + TransactionType.EXPENSE.getCode());
+    }
+
+    public Category findCategory (int id) {
+    	String sql = "SELECT * FROM categories WHERE id = ?";
+    	Category category = null;
         try {
             getConnection();
-			Statement stmt = connection.createStatement();
-			ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                categories.add(mapRowToCategory(rs));
+            try {
+                PreparedStatement stmt = prepare(sql);
+                stmt.setInt(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        category = mapRowToCategory(rs);
+                    }
+                }
+            } finally {
+                closeConnection();
             }
-            closeConnection();
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return categories;
+        return category;
     }
-    
-    public Category findCategory (int id) {
-    	String sql = "SELECT * FROM categories WHERE id = " + id;
-    	Category category = null;
+
+    private List<Category> findWhere(String sql) {
+        List<Category> categories = new ArrayList<>();
         try {
             getConnection();
-			Statement stmt = connection.createStatement();
-			ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                category = mapRowToCategory(rs);
+            try (ResultSet rs = prepare(sql).executeQuery()) {
+                while (rs.next()) {
+                    categories.add(mapRowToCategory(rs));
+                }
+            } finally {
+                closeConnection();
             }
-            closeConnection();
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return category;
+        return categories;
     }
 
     private Category mapRowToCategory(ResultSet rs) throws SQLException {
@@ -138,7 +133,7 @@ public class CategoryDAO extends BaseDAO {
         category.setId(rs.getInt("id"));
         category.setName(rs.getString("name"));
         category.setBudget(rs.getDouble("budget"));
-        category.setType(rs.getString("type"));
+        category.setType(TransactionType.fromCode(rs.getInt("type")));
         return category;
     }
 
@@ -0,0 +1,297 @@
+package server.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sqlite.SQLiteConfig;
+
+/**
+ * Small pool of long-lived SQLite connections shared by all DAOs.
+ * <p>
+ * A connection is leased to the calling thread on {@link #acquire()} and stays bound
+ * to that thread until the matching {@link #release()}, so nested DAO calls on the
+ * same thread reuse one connection. Connections run in WAL mode, which lets readers
+ * proceed while a single writer holds the write lock. Each connection keeps its own
+ * {@link StatementCache}, so hot SQL is parsed once per connection rather than per call.
+ * <p>
+ * Sizing can be tuned with the system properties {@code moneymanager.db.url},
+ * {@code moneymanager.db.poolSize}, {@code moneymanager.db.acquireTimeoutMs} and
+ * {@code moneymanager.db.statementCacheSize}.
+ * <p>
+ * Because committed pages may still sit in the {@code -wal} file and open connections
+ * keep serving the pages they have read, the database file must never be copied or
+ * replaced behind the pool's back: use {@link #backupTo(Path)} and {@link #restoreFrom(Path)}.
+ */
+public class ConnectionPool {
+    private static final String DEFAULT_URL = "jdbc:sqlite:money_management.db";
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 30_000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+    private static final int BUSY_TIMEOUT_MS = 5_000;
+    private static final String URL_PREFIX = "jdbc:sqlite:";
+
+    private static ConnectionPool instance;
+
+    private final String url;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final int statementCacheSize;
+    private final BlockingQueue<PooledConnection> idle;
+    private final ThreadLocal<Lease> leases = new ThreadLocal<>();
+    private volatile boolean shutdown;
+
+    // Connections open, leased or idle; bounded by maxSize
+    private final AtomicInteger openCount = new AtomicInteger();
+
+    public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1");
+        if (statementCacheSize < 1) throw new IllegalArgumentException("Statement cache size must be at least 1");
+        this.url = url;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    public static synchronized ConnectionPool getInstance() {
+        if (instance == null) {
+            instance = new ConnectionPool(
+                    System.getProperty("moneymanager.db.url", DEFAULT_URL),
+                    Integer.getInteger("moneymanager.db.poolSize", DEFAULT_POOL_SIZE),
+                    Long.getLong("moneymanager.db.acquireTimeoutMs", DEFAULT_ACQUIRE_TIMEOUT_MS),
+                    Integer.getInteger("moneymanager.db.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE));
+        }
+        return instance;
+    }
+
+    /**
+     * Leases a connection to the current thread. Re-entrant: a thread that already
+     * holds a connection gets the same one back and must call {@link #release()}
+     * once per acquire.
+     */
+    public Connection acquire() throws SQLException {
+        Lease lease = leases.get();
+        if (lease != null) {
+            lease.depth++;
+            return lease.pooled.connection;
+        }
+        if (shutdown) throw new SQLException("Connection pool has been shut down");
+
+        PooledConnection pooled = idle.poll();
+        if (pooled == null) {
+            pooled = tryOpen();
+        }
+        if (pooled == null) {
+            try {
+                pooled = idle.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (pooled == null) {
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection");
+            }
+        }
+        leases.set(new Lease(pooled));
+        return pooled.connection;
+    }
+
+    /**
+     * Returns a cached prepared statement for the current thread's leased connection.
+     * The statement belongs to the cache and must not be closed by the caller.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        Lease lease = leases.get();
+        if (lease == null) throw new SQLException("No connection is leased to the current thread");
+        return lease.pooled.statements.prepare(sql);
+    }
+
+    /**
+     * Releases one level of the current thread's lease. The connection goes back to
+     * the pool once the outermost acquire has been released.
+     */
+    public void release() {
+        Lease lease = leases.get();
+        if (lease == null) return;
+        if (--lease.depth > 0) return;
+
+        leases.remove();
+        PooledConnection pooled = lease.pooled;
+        try {
+            if (shutdown || pooled.connection.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            pooled.statements.reset();
+            // Never hand out a connection with a half-finished transaction
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            discard(pooled);
+            return;
+        }
+        if (!idle.offer(pooled)) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Closes all idle connections and refuses further leases. Connections still
+     * leased are closed when they are released.
+     */
+    public void shutdown() {
+        shutdown = true;
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Writes a consistent copy of the database, including changes still in the WAL, to
+     * {@code target}, replacing the file there. Runs on a connection of its own, since
+     * VACUUM cannot run beside the statements cached on pooled ones; those keep working meanwhile.
+     */
+    public void backupTo(Path target) throws SQLException, IOException {
+        Files.deleteIfExists(target); // VACUUM INTO refuses to overwrite
+        try (Connection connection = DriverManager.getConnection(url, createConfig().toProperties());
+             PreparedStatement stmt = connection.prepareStatement("VACUUM INTO ?")) {
+            stmt.setString(1, target.toAbsolutePath().toString());
+            stmt.execute();
+        }
+    }
+
+    /**
+     * Replaces the database with a copy of {@code source}. The current pool is shut down
+     * and every connection closed (waiting for leased ones to be released), the stale
+     * {@code -wal} and {@code -shm} files are deleted, the file is copied in and a new pool
+     * is installed. Leases requested meanwhile fail. A new pool is installed even if the
+     * copy fails, so the application keeps a working database either way.
+     * <p>
+     * Must not be called by a thread holding a lease.
+     */
+    public static void restoreFrom(Path source) throws SQLException, IOException {
+        ConnectionPool old = getInstance();
+        if (old.leases.get() != null) throw new IllegalStateException("The current thread holds a database connection");
+        Path file = old.getDatabaseFile();
+        old.shutdown();
+        try {
+            old.awaitClosed();
+            Files.deleteIfExists(Paths.get(file + "-wal"));
+            Files.deleteIfExists(Paths.get(file + "-shm"));
+            Files.copy(source, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            synchronized (ConnectionPool.class) {
+                instance = new ConnectionPool(old.url, old.maxSize, old.acquireTimeoutMillis, old.statementCacheSize);
+            }
+        }
+    }
+
+    // The database file named by the JDBC URL
+    public Path getDatabaseFile() throws SQLException {
+        String path = url.startsWith(URL_PREFIX) ? url.substring(URL_PREFIX.length()) : "";
+        if (path.startsWith("file:")) path = path.substring("file:".length());
+        int options = path.indexOf('?');
+        if (options >= 0) path = path.substring(0, options);
+        if (path.isEmpty() || path.startsWith(":memory:")) throw new SQLException("Not a database file: " + url);
+        return Paths.get(path);
+    }
+
+    // Waits, after shutdown, until every connection has been released and closed
+    private void awaitClosed() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        synchronized (this) {
+            while (openCount.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis + " ms waiting for database connections to be released");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for database connections to be released", e);
+                }
+            }
+        }
+    }
+
+    private PooledConnection tryOpen() throws SQLException {
+        while (true) {
+            int open = openCount.get();
+            if (open >= maxSize) return null;
+            if (openCount.compareAndSet(open, open + 1)) break;
+        }
+        try {
+            Connection connection = DriverManager.getConnection(url, createConfig().toProperties());
+            return new PooledConnection(connection, new StatementCache(connection, statementCacheSize));
+        } catch (SQLException e) {
+            connectionClosed();
+            throw e;
+        }
+    }
+
+    private SQLiteConfig createConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        // Take the write lock at BEGIN so concurrent writers queue on the busy timeout
+        // instead of failing when a deferred read lock tries to upgrade
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return config;
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.statements.closeAll();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        connectionClosed();
+    }
+
+    private void connectionClosed() {
+        openCount.decrementAndGet();
+        if (shutdown) {
+            synchronized (this) {
+                notifyAll(); // wakes awaitClosed
+            }
+        }
+    }
+
+    private static class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+
+        private PooledConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+    }
+
+    private static class Lease {
+        private final PooledConnection pooled;
+        private int depth = 1;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package server.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Brings the database schema up to date on startup and after a database file is imported.
+ * <p>
+ * Migrations are numbered and applied in order. Each one runs in its own SQL
+ * transaction together with the {@code schema_version} row that records it, so a
+ * failed migration leaves no trace and is retried on the next start. The applied
+ * version is re-read inside that transaction, which makes concurrent starts safe,
+ * and every step is written to be harmless on databases that already contain its
+ * objects (databases created before migrations existed start at version 0).
+ * <p>
+ * To change the schema, append a migration with the next version number; never
+ * edit one that has shipped.
+ */
+public class SchemaMigrator extends BaseDAO {
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "Base schema (replaces sql/init.sql)", SchemaMigrator::createBaseSchema),
+            new Migration(2, "Indexes for date, account and category access paths", SchemaMigrator::createTransactionIndexes),
+            new Migration(3, "Monthly account balance snapshots", SchemaMigrator::createBalanceSnapshots),
+            new Migration(4, "Transaction and category types stored as integer codes", SchemaMigrator::storeTypesAsCodes)
+    );
+
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // Applies all pending migrations and returns how many were applied
+    public int migrate() throws SQLException {
+        return migrate(getLatestVersion());
+    }
+
+    // Applies pending migrations up to and including targetVersion
+    public int migrate(int targetVersion) throws SQLException {
+        createVersionTable();
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > targetVersion) break;
+            boolean ran = inTransaction(connection -> {
+                if (getCurrentVersion() >= migration.version) return false;
+                migration.step.apply(connection);
+                PreparedStatement stmt = prepare("INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)");
+                stmt.setInt(1, migration.version);
+                stmt.setString(2, migration.description);
+                stmt.setLong(3, System.currentTimeMillis());
+                stmt.executeUpdate();
+                return true;
+            });
+            if (ran) applied++;
+        }
+        return applied;
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        getConnection();
+        try (ResultSet rs = prepare("SELECT COALESCE(MAX(version), 0) FROM schema_version").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void createVersionTable() throws SQLException {
+        Connection connection = getConnection();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INTEGER PRIMARY KEY, description TEXT NOT NULL, applied_at INTEGER NOT NULL)");
+        } finally {
+            closeConnection();
+        }
+    }
+
+    /*
+     * Migrations
+     */
+
+    private static void createBaseSchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS accounts ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, group_name TEXT, "
+                    + "balance REAL DEFAULT 0, budget REAL, goal REAL, deleted INTEGER DEFAULT 0)");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS categories ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, "
+                    + "type TEXT NOT NULL CHECK(type IN ('income', 'expense')), budget REAL)");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS transactions ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, date_time DATETIME NOT NULL, amount REAL NOT NULL, "
+                    + "source_account INTEGER, destination_account INTEGER, category INTEGER, note TEXT, type TEXT, "
+                    + "FOREIGN KEY(source_account) REFERENCES accounts(id), "
+                    + "FOREIGN KEY(destination_account) REFERENCES accounts(id), "
+                    + "FOREIGN KEY(category) REFERENCES categories(id))");
+        }
+        // Columns that were added by hand to older databases
+        addColumnIfMissing(connection, "categories", "budget", "REAL");
+        addColumnIfMissing(connection, "accounts", "budget", "REAL");
+        addColumnIfMissing(connection, "accounts", "goal", "REAL");
+        addColumnIfMissing(connection, "accounts", "deleted", "INTEGER DEFAULT 0");
+    }
+
+    /*
+     * date_time: month/year/range scans (findByMonth, date filters), in order.
+     * source_account / destination_account: lead with the account, then date_time, and carry
+     *   type and amount, so the end-of-month balance query is answered from the two indexes
+     *   alone (one per side of its OR) without touching the table.
+     * category: category deletes and filters, ordered by date within a category.
+     */
+    private static void createTransactionIndexes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_date_time ON transactions (date_time)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_source_account "
+                    + "ON transactions (source_account, date_time, type, amount, destination_account)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_destination_account "
+                    + "ON transactions (destination_account, date_time, type, amount, source_account)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions (category, date_time)");
+            // Give the planner row statistics so it picks between the date and account indexes correctly
+            stmt.executeUpdate("ANALYZE transactions");
+        }
+    }
+
+    private static void createBalanceSnapshots(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(BalanceSnapshotDAO.CREATE_TABLE_SQL);
+        }
+        new BalanceSnapshotDAO().rebuild();
+    }
+
+    /*
+     * SQLite cannot change a column's type or CHECK constraint in place, so both tables are
+     * copied into new ones with an INTEGER type column (TransactionType codes), then swapped
+     * in. Ids and the AUTOINCREMENT counters are kept; the transaction indexes are recreated.
+     * Foreign keys are not enforced on these connections, so the swap leaves references intact.
+     */
+    private static void storeTypesAsCodes(Connection connection) throws SQLException {
+        String code = "CASE lower(type) WHEN 'income' THEN 1 WHEN 'expense' THEN 2 WHEN 'transfer' THEN 3 END";
+        rebuildTable(connection, "categories",
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, "
+                        + "type INTEGER NOT NULL CHECK(type IN (1, 2)), budget REAL",
+                "id, name, type, budget", "id, name, " + code + ", budget");
+        rebuildTable(connection, "transactions",
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, date_time DATETIME NOT NULL, amount REAL NOT NULL, "
+                        + "source_account INTEGER, destination_account INTEGER, category INTEGER, note TEXT, type INTEGER, "
+                        + "FOREIGN KEY(source_account) REFERENCES accounts(id), "
+                        + "FOREIGN KEY(destination_account) REFERENCES accounts(id), "
+                        + "FOREIGN KEY(category) REFERENCES categories(id)",
+                "id, date_time, amount, source_account, destination_account, category, note, type",
+                "id, date_time, amount, source_account, destination_account, category, note, " + code);
+        createTransactionIndexes(connection);
+    }
+
+    private static void rebuildTable(Connection connection, String table, String columnDefinitions,
+            String columns, String selectExpressions) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            long sequence = 0;
+            try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = '" + table + "'")) {
+                if (rs.next()) sequence = rs.getLong(1);
+            }
+            stmt.executeUpdate("CREATE TABLE " + table + "_new (" + columnDefinitions + ")");
+            stmt.executeUpdate("INSERT INTO " + table + "_new (" + columns + ") SELECT " + selectExpressions + " FROM " + table);
+            stmt.executeUpdate("DROP TABLE " + table);
+            stmt.executeUpdate("ALTER TABLE " + table + "_new RENAME TO " + table);
+            stmt.executeUpdate("UPDATE sqlite_sequence SET seq = MAX(seq, " + sequence + ") WHERE name = '" + table + "'");
+        }
+    }
+
+    private static void addColumnIfMissing(Connection connection, String table, String column, String definition) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (rs.next()) {
+                    if (rs.getString("name").equalsIgnoreCase(column)) return;
+                }
+            }
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package server.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LRU cache of prepared statements for one pooled connection, keyed by SQL text.
+ * <p>
+ * Statements are owned by the cache: DAOs must not close them. A statement is only
+ * closed when it is evicted or when its connection leaves the pool. Whenever the
+ * connection is returned, {@link #reset()} closes any result set a caller left open
+ * and clears the bound parameters of the statements used during that lease.
+ * <p>
+ * Not thread-safe; a connection and its cache are only used by the thread that
+ * currently leases them.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private final int capacity;
+    private final Set<PreparedStatement> usedSinceReset = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+        this.capacity = capacity;
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+            evictOverflow();
+        }
+        usedSinceReset.add(statement);
+        return statement;
+    }
+
+    void reset() {
+        for (PreparedStatement statement : usedSinceReset) {
+            try {
+                if (statement.isClosed()) continue;
+                if (!statements.containsValue(statement)) {
+                    // Evicted while this lease was still using it
+                    statement.close();
+                    continue;
+                }
+                ResultSet resultSet = statement.getResultSet();
+                if (resultSet != null) resultSet.close();
+                statement.clearParameters();
+            } catch (SQLException e) {
+                // A statement left unusable by a failed execution is dropped and re-prepared on next use
+                statements.values().remove(statement);
+                closeQuietly(statement);
+            }
+        }
+        usedSinceReset.clear();
+    }
+
+    void closeAll() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+        usedSinceReset.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<PreparedStatement> eldest = statements.values().iterator();
+        while (statements.size() > capacity && eldest.hasNext()) {
+            PreparedStatement statement = eldest.next();
+            eldest.remove();
+            // A statement evicted mid-lease may still be in use by the caller; close it on reset instead
+            if (!usedSinceReset.contains(statement)) {
+                closeQuietly(statement);
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -2,66 +2,129 @@ package server.dao;
 
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.time.temporal.TemporalAdjusters;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import server.event.TransactionChanged;
+import server.event.TransactionsImported;
 import server.model.Transaction;
-import server.service.AccountService;
+import server.model.TransactionType;
 import server.utils.TimeUtils;
 
 public class TransactionDAO extends BaseDAO {
+	private static final int BATCH_SIZE = 500;
+	private static final int FETCH_SIZE = 1_000;
 
+	private final AccountDAO accountDAO = new AccountDAO();
+	private final BalanceSnapshotDAO snapshotDAO = new BalanceSnapshotDAO();
+
+	// The row and its balance effect are written in one SQL transaction
 	public void insert(Transaction transaction) {
 	    String sql = "INSERT INTO transactions (date_time, amount, source_account, category, destination_account, note, type) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
 	    try {
-			getConnection();
-	        PreparedStatement stmt = connection.prepareStatement(sql);
-
-	        // Convert LocalDateTime to UTC Timestamp
-	        Timestamp utcTimestamp = TimeUtils.toUtcTimestamp(transaction.getDateTime());
-
-	        stmt.setTimestamp(1, utcTimestamp);
-	        stmt.setDouble(2, transaction.getAmount());
-	        stmt.setInt(3, transaction.getSourceAccount());
-	        if (transaction.getCategory() != 0) {
-	            stmt.setInt(4, transaction.getCategory());
-	        } else {
-	            stmt.setNull(4, Types.INTEGER);
-	        }
-	        if (transaction.getDestinationAccount() != 0) {
-	            stmt.setInt(5, transaction.getDestinationAccount());
-	        } else {
-	            stmt.setNull(5, Types.INTEGER);
-	        }
-	        stmt.setString(6, transaction.getNote());
-	        stmt.setString(7, transaction.getType());
-
-	        stmt.executeUpdate();
-	        closeConnection();
-	        applyTransactionOnAccount(transaction);
+	        inTransaction(connection -> {
+		        PreparedStatement stmt = prepare(sql);
+		        bindTransaction(stmt, transaction);
+		        stmt.executeUpdate();
+		        transaction.setId(lastInsertId());
+		        applyBalanceEffect(transaction, 1);
+		        publish(TransactionChanged.inserted(transaction));
+		        return null;
+	        });
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
 	}
-	public void update(Transaction transaction) {
-		remove(transaction.getId());
-		insert(transaction);
+
+	/**
+	 * Inserts all rows in one SQL transaction using JDBC batches of {@value #BATCH_SIZE}.
+	 * Balance effects are summed per account (and per account and month for the balance
+	 * snapshots) and applied once at the end, and one {@link TransactionsImported} event
+	 * names the months written. Rows are written as given; callers validate them first.
+	 * The input is consumed once, so it may be a lazily produced stream of rows.
+	 *
+	 * @return the number of rows inserted
+	 */
+	public int insertAll(Iterable<Transaction> transactions) throws SQLException {
+	    String sql = "INSERT INTO transactions (date_time, amount, source_account, category, destination_account, note, type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	    return inTransaction(connection -> {
+	        PreparedStatement stmt = prepare(sql);
+	        Map<Integer, Double> balanceDeltas = new HashMap<>();
+	        Map<Long, Double> snapshotDeltas = new HashMap<>();
+	        Set<YearMonth> months = new HashSet<>();
+	        int count = 0;
+	        int pending = 0;
+	        for (Transaction transaction : transactions) {
+	            count++;
+	            bindTransaction(stmt, transaction);
+	            stmt.addBatch();
+	            addBalanceEffect(balanceDeltas, snapshotDeltas, transaction);
+	            months.add(YearMonth.from(transaction.getDateTime()));
+	            if (++pending == BATCH_SIZE) {
+	                stmt.executeBatch();
+	                pending = 0;
+	            }
+	        }
+	        if (pending > 0) stmt.executeBatch();
+	        accountDAO.addToBalances(balanceDeltas);
+	        snapshotDAO.addChanges(snapshotDeltas);
+	        if (count > 0) publish(new TransactionsImported(count, months));
+	        return count;
+	    });
+	}
+
+	// Reverses the stored row's balance effect, rewrites it in place (keeping its id) and applies the new effect.
+	// Returns the row as it was before the update, or null if there is no such row
+	public Transaction update(Transaction transaction) {
+		String sql = "UPDATE transactions SET date_time = ?, amount = ?, source_account = ?, category = ?, destination_account = ?, note = ?, type = ? WHERE id = ?";
+
+		try {
+			return inTransaction(connection -> {
+				Transaction previous = findById(transaction.getId());
+				if (previous == null) return null;
+				applyBalanceEffect(previous, -1);
+
+				PreparedStatement stmt = prepare(sql);
+				bindTransaction(stmt, transaction);
+				stmt.setInt(8, transaction.getId());
+				stmt.executeUpdate();
+
+				applyBalanceEffect(transaction, 1);
+				publish(TransactionChanged.updated(previous, transaction));
+				return previous;
+			});
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return null;
+		}
 	}
-	public void remove(int id) {
+
+	// Returns the deleted row, or null if there was no such row
+	public Transaction remove(int id) {
 		String sql = "DELETE FROM transactions WHERE id = ?";
 
 		try {
-			rollbackTransactionOnAccount(findById(id));
-			getConnection();
-			PreparedStatement stmt = connection.prepareStatement(sql);
-			stmt.setInt(1, id);
-			stmt.executeUpdate();
-			closeConnection();
-			
+			return inTransaction(connection -> {
+				Transaction transaction = findById(id);
+				if (transaction == null) return null;
+				applyBalanceEffect(transaction, -1);
+
+				PreparedStatement stmt = prepare(sql);
+				stmt.setInt(1, id);
+				stmt.executeUpdate();
+				publish(TransactionChanged.deleted(transaction));
+				return transaction;
+			});
 		} catch (SQLException e) {
 			e.printStackTrace();
+			return null;
 		}
 	}
 
@@ -71,14 +134,17 @@ public class TransactionDAO extends BaseDAO {
 
 		try {
 			getConnection();
-			PreparedStatement stmt = connection.prepareStatement(sql);
-			stmt.setInt(1, id);
-			ResultSet rs = stmt.executeQuery();
-
-			if (rs.next()) {
-				transaction = mapRowToTransaction(rs);
+			try {
+				PreparedStatement stmt = prepare(sql);
+				stmt.setInt(1, id);
+				try (ResultSet rs = stmt.executeQuery()) {
+					if (rs.next()) {
+						transaction = mapRowToTransaction(rs);
+					}
+				}
+			} finally {
+				closeConnection();
 			}
-			closeConnection();
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -92,14 +158,14 @@ public class TransactionDAO extends BaseDAO {
 
 		try {
 			getConnection();
-			PreparedStatement stmt = connection.prepareStatement(sql);
-			ResultSet rs = stmt.executeQuery();
-
-			while (rs.next()) {
-				Transaction transaction = mapRowToTransaction(rs);
-				transactions.add(transaction);
+			try (ResultSet rs = prepare(sql).executeQuery()) {
+				while (rs.next()) {
+					Transaction transaction = mapRowToTransaction(rs);
+					transactions.add(transaction);
+				}
+			} finally {
+				closeConnection();
 			}
-			closeConnection();
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -107,61 +173,87 @@ public class TransactionDAO extends BaseDAO {
 		return transactions;
 	}
 	
-	public List<Transaction> findByMonth(int month, int year) {
-	    String sql = "SELECT * FROM transactions WHERE date_time >= ? AND date_time < ? ORDER BY date_time DESC";
-	    List<Transaction> transactions = new ArrayList<>();
+	/**
+	 * Streams the rows matching {@code whereClause} (may be null for all rows) to
+	 * {@code handler} straight off the cursor, without collecting them. The same
+	 * {@link Transaction} instance is refilled for every row, so a handler that keeps
+	 * rows must copy them with {@link Transaction#prototype()}.
+	 *
+	 * @return the number of rows delivered
+	 */
+	public long forEach(String whereClause, List<Object> params, TransactionHandler handler) throws Exception {
+		String sql = whereClause == null ? "SELECT * FROM transactions" : "SELECT * FROM transactions WHERE " + whereClause;
+		long count = 0;
 
-	    // Get the start and end of the month in local time
-	    LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-	    LocalDateTime endOfMonth = startOfMonth.with(TemporalAdjusters.lastDayOfMonth()).plusDays(1); // Start of the next month
+		getConnection();
+		try {
+			PreparedStatement stmt = prepare(sql);
+			stmt.setFetchSize(FETCH_SIZE);
+			for (int i = 0; i < params.size(); i++) {
+				stmt.setObject(i + 1, params.get(i));
+			}
+			Transaction row = new Transaction();
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					mapRowInto(rs, row);
+					handler.handle(row);
+					count++;
+				}
+			}
+		} finally {
+			closeConnection();
+		}
+		return count;
+	}
 
-	    // Convert start and end of the month to UTC
-	    Timestamp utcStartTimestamp = TimeUtils.toUtcTimestamp(startOfMonth);
-	    Timestamp utcEndTimestamp = TimeUtils.toUtcTimestamp(endOfMonth);
+	/**
+	 * Transactions with {@code from <= date_time < to}, newest first. Bounds are local
+	 * times converted to the stored UTC instants, so the query is a range scan on the
+	 * date_time index. The month and year lookups go through here.
+	 */
+	public List<Transaction> findByRange(LocalDateTime from, LocalDateTime to) {
+	    String sql = "SELECT * FROM transactions WHERE date_time >= ? AND date_time < ? ORDER BY date_time DESC";
+	    List<Transaction> transactions = new ArrayList<>();
 
 	    try {
 			getConnection();
-	        PreparedStatement stmt = connection.prepareStatement(sql);
-	        stmt.setTimestamp(1, utcStartTimestamp);
-	        stmt.setTimestamp(2, utcEndTimestamp);
-	        ResultSet rs = stmt.executeQuery();
-
-	        while (rs.next()) {
-	            Transaction transaction = mapRowToTransaction(rs);
-	            transactions.add(transaction);
+	        try {
+		        PreparedStatement stmt = prepare(sql);
+		        stmt.setTimestamp(1, TimeUtils.toUtcTimestamp(from));
+		        stmt.setTimestamp(2, TimeUtils.toUtcTimestamp(to));
+		        try (ResultSet rs = stmt.executeQuery()) {
+			        while (rs.next()) {
+			            Transaction transaction = mapRowToTransaction(rs);
+			            transactions.add(transaction);
+			        }
+		        }
+	        } finally {
+		        closeConnection();
 	        }
-	        closeConnection();
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
 
 	    return transactions;
 	}
-	
-	public List<Transaction> findByYear(int year) {
-	    String sql = "SELECT * FROM transactions WHERE strftime('%Y', datetime(date_time / 1000, 'unixepoch')) = ? ORDER BY date_time DESC";
-	    List<Transaction> transactions = new ArrayList<>();
 
-	    try {
-			getConnection();
-	        PreparedStatement stmt = connection.prepareStatement(sql);
-	        stmt.setString(1, String.valueOf(year)); // Pass the year as a string
-	        ResultSet rs = stmt.executeQuery();
-
-	        while (rs.next()) {
-	            Transaction transaction = mapRowToTransaction(rs);
-	            transactions.add(transaction);
-	        }
-	        closeConnection();
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
+	public List<Transaction> findByMonth(int month, int year) {
+	    LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
+	    return findByRange(startOfMonth, startOfMonth.plusMonths(1));
+	}
 
-	    return transactions;
+	public List<Transaction> findByYear(int year) {
+	    LocalDateTime startOfYear = LocalDateTime.of(year, 1, 1, 0, 0);
+	    return findByRange(startOfYear, startOfYear.plusYears(1));
 	}
-	
+
 	public Transaction mapRowToTransaction(ResultSet rs) throws SQLException {
 		Transaction transaction = new Transaction();
+		mapRowInto(rs, transaction);
+		return transaction;
+	}
+
+	private void mapRowInto(ResultSet rs, Transaction transaction) throws SQLException {
 		transaction.setId(rs.getInt("id"));
         // Assuming the column name is "date_time"
         Timestamp timestamp = rs.getTimestamp("date_time");
@@ -175,38 +267,75 @@ public class TransactionDAO extends BaseDAO {
         transaction.setCategory(rs.getInt("category"));
         transaction.setDestinationAccount(rs.getInt("destination_account"));
         transaction.setNote(rs.getString("note"));
-        transaction.setType(rs.getString("type"));
-
-        return transaction;
+        transaction.setType(TransactionType.fromCode(rs.getInt("type")));
     }
 	
-	private void rollbackTransactionOnAccount(Transaction transaction) {
-		AccountService serv = new AccountService();
-	    if (transaction.getType().equals("Income")) {
-	        // Subtract from the account (reverse the income)
-	        serv.adjustBalance(transaction.getSourceAccount(), -transaction.getAmount());
-	    } else if (transaction.getType().equals("Expense")) {
-	        // Add back to the account (reverse the expense)
-	        serv.adjustBalance(transaction.getSourceAccount(), transaction.getAmount());
-	    } else if (transaction.getType().equals("Transfer")) {
-	        // Reverse transfer: add back to source, subtract from destination
-	        serv.adjustBalance(transaction.getSourceAccount(), transaction.getAmount());
-	        serv.adjustBalance(transaction.getDestinationAccount(), -transaction.getAmount());
+	// Binds parameters 1-7 in the column order shared by the INSERT and UPDATE statements
+	private void bindTransaction(PreparedStatement stmt, Transaction transaction) throws SQLException {
+		// Convert LocalDateTime to UTC Timestamp
+		Timestamp utcTimestamp = TimeUtils.toUtcTimestamp(transaction.getDateTime());
+
+		stmt.setTimestamp(1, utcTimestamp);
+		stmt.setDouble(2, transaction.getAmount());
+		stmt.setInt(3, transaction.getSourceAccount());
+		if (transaction.getCategory() != 0) {
+			stmt.setInt(4, transaction.getCategory());
+		} else {
+			stmt.setNull(4, Types.INTEGER);
+		}
+		if (transaction.getDestinationAccount() != 0) {
+			stmt.setInt(5, transaction.getDestinationAccount());
+		} else {
+			stmt.setNull(5, Types.INTEGER);
+		}
+		stmt.setString(6, transaction.getNote());
+		if (transaction.getType() != null) {
+			stmt.setInt(7, transaction.getType().getCode());
+		} else {
+			stmt.setNull(7, Types.INTEGER);
+		}
+	}
+
+	private void addBalanceEffect(Map<Integer, Double> deltas, Map<Long, Double> snapshotDeltas, Transaction transaction) {
+		double amount = transaction.getAmount();
+		int period = BalanceSnapshotDAO.periodOf(transaction.getDateTime());
+	    if (transaction.getType() == TransactionType.INCOME) {
+	        addDelta(deltas, snapshotDeltas, transaction.getSourceAccount(), period, amount);
+	    } else if (transaction.getType() == TransactionType.EXPENSE) {
+	        addDelta(deltas, snapshotDeltas, transaction.getSourceAccount(), period, -amount);
+	    } else if (transaction.getType() == TransactionType.TRANSFER) {
+	        addDelta(deltas, snapshotDeltas, transaction.getSourceAccount(), period, -amount);
+	        addDelta(deltas, snapshotDeltas, transaction.getDestinationAccount(), period, amount);
 	    }
 	}
 
-	private void applyTransactionOnAccount(Transaction transaction) {
-		AccountService serv = new AccountService();
-	    if (transaction.getType().equals("Income")) {
-	        // Add to the account (apply income)
-	        serv.adjustBalance(transaction.getSourceAccount(), transaction.getAmount());
-	    } else if (transaction.getType().equals("Expense")) {
-	        // Subtract from the account (apply expense)
-	        serv.adjustBalance(transaction.getSourceAccount(), -transaction.getAmount());
-	    } else if (transaction.getType().equals("Transfer")) {
+	private void addDelta(Map<Integer, Double> deltas, Map<Long, Double> snapshotDeltas, int accountId, int period, double amount) {
+		deltas.merge(accountId, amount, Double::sum);
+		snapshotDeltas.merge(BalanceSnapshotDAO.key(accountId, period), amount, Double::sum);
+	}
+
+	// direction is 1 to apply the transaction to its accounts, -1 to reverse it
+	private void applyBalanceEffect(Transaction transaction, int direction) throws SQLException {
+		double amount = direction * transaction.getAmount();
+	    if (transaction.getType() == TransactionType.INCOME) {
+	        adjust(transaction, transaction.getSourceAccount(), amount);
+	    } else if (transaction.getType() == TransactionType.EXPENSE) {
+	        adjust(transaction, transaction.getSourceAccount(), -amount);
+	    } else if (transaction.getType() == TransactionType.TRANSFER) {
 	        // Transfer: subtract from source, add to destination
-	        serv.adjustBalance(transaction.getSourceAccount(), -transaction.getAmount());
-	        serv.adjustBalance(transaction.getDestinationAccount(), transaction.getAmount());
+	        adjust(transaction, transaction.getSourceAccount(), -amount);
+	        adjust(transaction, transaction.getDestinationAccount(), amount);
 	    }
 	}
+
+	// Moves the current balance and the month snapshots from the transaction's month on
+	private void adjust(Transaction transaction, int accountId, double amount) throws SQLException {
+		accountDAO.addToBalance(accountId, amount);
+		snapshotDAO.addChange(accountId, BalanceSnapshotDAO.periodOf(transaction.getDateTime()), amount);
+	}
+
+	@FunctionalInterface
+	public interface TransactionHandler {
+		void handle(Transaction transaction) throws Exception;
+	}
 }
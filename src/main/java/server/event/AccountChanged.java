@@ -0,0 +1,27 @@
+package server.event;
+
+import server.model.Account;
+
+/**
+ * An account inserted, updated or deleted. {@code account} is a copy of the stored
+ * row, null for a delete. Deleting an account also deletes its transactions.
+ */
+public class AccountChanged extends ChangeEvent {
+    private final int id;
+    private final Account account;
+
+    public AccountChanged(Kind kind, int id, Account account) {
+        super(kind);
+        this.id = id;
+        this.account = account == null ? null
+                : new Account(account.getId(), account.getName(), account.getGroup(), account.getBalance(), account.getGoal());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+}
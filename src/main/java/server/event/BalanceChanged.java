@@ -0,0 +1,23 @@
+package server.event;
+
+/**
+ * An account's balance moved by {@code delta}, e.g. as the effect of a transaction.
+ */
+public class BalanceChanged extends ChangeEvent {
+    private final int accountId;
+    private final double delta;
+
+    public BalanceChanged(int accountId, double delta) {
+        super(Kind.UPDATED);
+        this.accountId = accountId;
+        this.delta = delta;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+}
@@ -0,0 +1,35 @@
+package server.event;
+
+import server.model.Category;
+
+/**
+ * A category inserted, updated or deleted. {@code category} is a copy of the stored
+ * row, null for a delete. Deleting a category also deletes its transactions.
+ */
+public class CategoryChanged extends ChangeEvent {
+    private final int id;
+    private final Category category;
+
+    public CategoryChanged(Kind kind, int id, Category category) {
+        super(kind);
+        this.id = id;
+        this.category = category == null ? null : copy(category);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    private static Category copy(Category category) {
+        Category copy = new Category();
+        copy.setId(category.getId());
+        copy.setName(category.getName());
+        copy.setType(category.getType());
+        copy.setBudget(category.getBudget());
+        return copy;
+    }
+}
@@ -0,0 +1,56 @@
+package server.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link ChangeEvent}s to the subscribers registered for their type.
+ * <p>
+ * Events are delivered synchronously on the publishing thread. DAOs publish through
+ * {@code BaseDAO.publish}, which holds events raised inside a SQL transaction until
+ * it commits (and drops them if it rolls back), so subscribers only ever see
+ * committed changes, and see them before the DAO call returns. A subscriber that
+ * throws is reported and does not stop delivery to the others.
+ */
+public class ChangeBus {
+    private static ChangeBus instance;
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    private ChangeBus() {}
+
+    public static synchronized ChangeBus getInstance() {
+        if (instance == null) instance = new ChangeBus();
+        return instance;
+    }
+
+    // Receives every published event that is an instance of type
+    public <E extends ChangeEvent> void subscribe(Class<E> type, Consumer<? super E> listener) {
+        subscriptions.add(new Subscription<>(type, listener));
+    }
+
+    public void publish(ChangeEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            try {
+                subscription.deliver(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static class Subscription<E extends ChangeEvent> {
+        private final Class<E> type;
+        private final Consumer<? super E> listener;
+
+        private Subscription(Class<E> type, Consumer<? super E> listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+
+        private void deliver(ChangeEvent event) {
+            if (type.isInstance(event)) listener.accept(type.cast(event));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package server.event;
+
+/**
+ * A committed change to the database, published on the {@link ChangeBus} by the DAO
+ * that made it. Events describe the change itself (the rows before and after, the
+ * amount a balance moved) so subscribers can update what they hold without
+ * re-querying.
+ */
+public abstract class ChangeEvent {
+    public enum Kind { INSERTED, UPDATED, DELETED }
+
+    private final Kind kind;
+
+    protected ChangeEvent(Kind kind) {
+        this.kind = kind;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+}
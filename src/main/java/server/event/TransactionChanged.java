@@ -0,0 +1,54 @@
+package server.event;
+
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import server.model.Transaction;
+
+/**
+ * One transaction inserted, updated or deleted. {@code before} is null for an
+ * insert and {@code after} is null for a delete; both are copies owned by the event.
+ */
+public class TransactionChanged extends ChangeEvent {
+    private final Transaction before;
+    private final Transaction after;
+
+    private TransactionChanged(Kind kind, Transaction before, Transaction after) {
+        super(kind);
+        this.before = before == null ? null : before.prototype();
+        this.after = after == null ? null : after.prototype();
+    }
+
+    public static TransactionChanged inserted(Transaction transaction) {
+        return new TransactionChanged(Kind.INSERTED, null, transaction);
+    }
+
+    public static TransactionChanged updated(Transaction before, Transaction after) {
+        return new TransactionChanged(Kind.UPDATED, before, after);
+    }
+
+    public static TransactionChanged deleted(Transaction transaction) {
+        return new TransactionChanged(Kind.DELETED, transaction, null);
+    }
+
+    public int getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public Transaction getBefore() {
+        return before;
+    }
+
+    public Transaction getAfter() {
+        return after;
+    }
+
+    // Local calendar months of the old and new dates
+    public Set<YearMonth> getAffectedMonths() {
+        Set<YearMonth> months = new LinkedHashSet<>();
+        if (before != null) months.add(YearMonth.from(before.getDateTime()));
+        if (after != null) months.add(YearMonth.from(after.getDateTime()));
+        return months;
+    }
+}
@@ -0,0 +1,28 @@
+package server.event;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A batch of transactions inserted in one SQL transaction. Only the months they fall
+ * in are carried, not the rows; subscribers reload those months if they need them.
+ */
+public class TransactionsImported extends ChangeEvent {
+    private final int count;
+    private final Set<YearMonth> months;
+
+    public TransactionsImported(int count, Set<YearMonth> months) {
+        super(Kind.INSERTED);
+        this.count = count;
+        this.months = Collections.unmodifiableSet(months);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Set<YearMonth> getAffectedMonths() {
+        return months;
+    }
+}
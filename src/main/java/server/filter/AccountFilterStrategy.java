@@ -15,4 +15,9 @@ public class AccountFilterStrategy implements TransactionFilterStrategy {
 		return transaction.getDestinationAccount() == account.getId() ||
 			   transaction.getSourceAccount() == account.getId();
 	}
+
+	@Override
+	public SqlPredicate toSql() {
+		return new SqlPredicate("(source_account = ? OR destination_account = ?)", account.getId(), account.getId());
+	}
 }
@@ -17,4 +17,9 @@ public class AmountFilterStrategy implements TransactionFilterStrategy {
 	public boolean filter (Transaction transaction) {
 		return transaction.getAmount() >= fromAmount && transaction.getAmount() <= toAmount;
 	}
+
+	@Override
+	public SqlPredicate toSql() {
+		return new SqlPredicate("amount BETWEEN ? AND ?", fromAmount, toAmount);
+	}
 }
@@ -14,4 +14,9 @@ public class CategoryFilterStrategy implements TransactionFilterStrategy {
 	public boolean filter (Transaction transaction) {
 		return transaction.getCategory() == category.getId();
 	}
+
+	@Override
+	public SqlPredicate toSql() {
+		return new SqlPredicate("category = ?", category.getId());
+	}
 }
@@ -0,0 +1,75 @@
+package server.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import server.model.Transaction;
+
+/**
+ * A filter chain split by {@link #compile} into the part SQLite can evaluate and
+ * the part that has to run in memory.
+ * <p>
+ * Every strategy whose {@link TransactionFilterStrategy#toSql()} is not null becomes
+ * one conjunct of a single parameterized {@code WHERE} clause, so the date range,
+ * account and category conditions can use the transactions indexes. The remaining
+ * strategies (custom lambdas, or conditions SQLite cannot express with the same
+ * semantics) are checked by {@link #accepts} in one pass per row.
+ */
+public class CompiledFilter {
+    private final String whereClause;
+    private final List<Object> params;
+    private final TransactionFilterStrategy[] residual;
+
+    private CompiledFilter(String whereClause, List<Object> params, TransactionFilterStrategy[] residual) {
+        this.whereClause = whereClause;
+        this.params = params;
+        this.residual = residual;
+    }
+
+    public static CompiledFilter compile(List<? extends TransactionFilterStrategy> strategies) {
+        StringBuilder where = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        List<TransactionFilterStrategy> residual = new ArrayList<>();
+
+        for (TransactionFilterStrategy strategy : strategies) {
+            SqlPredicate predicate = strategy.toSql();
+            if (predicate == null) {
+                residual.add(strategy);
+                continue;
+            }
+            if (where.length() > 0) where.append(" AND ");
+            where.append('(').append(predicate.getClause()).append(')');
+            params.addAll(predicate.getParams());
+        }
+        return new CompiledFilter(where.length() == 0 ? null : where.toString(),
+                Collections.unmodifiableList(params),
+                residual.toArray(new TransactionFilterStrategy[0]));
+    }
+
+    // Null when nothing could be pushed down
+    public String getWhereClause() {
+        return whereClause;
+    }
+
+    public List<Object> getParams() {
+        return params;
+    }
+
+    public boolean hasResidual() {
+        return residual.length > 0;
+    }
+
+    // Checks the strategies that were not pushed down
+    public boolean accepts(Transaction transaction) {
+        for (TransactionFilterStrategy strategy : residual) {
+            if (!strategy.filter(transaction)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "WHERE " + whereClause + " " + params + " + " + residual.length + " in-memory";
+    }
+}
@@ -2,6 +2,7 @@ package server.filter;
 
 import java.time.LocalDate;
 
+import server.utils.TimeUtils;
 import server.model.Transaction;
 
 public class DateFilterStrategy implements TransactionFilterStrategy {
@@ -18,4 +19,12 @@ public class DateFilterStrategy implements TransactionFilterStrategy {
 		return !(transaction.getDateTime().toLocalDate().isBefore(fromDate) || 
 				 transaction.getDateTime().toLocalDate().isAfter(toDate));
 	}
+
+	// Half-open range over the stored UTC instants: [fromDate 00:00, day after toDate 00:00)
+	@Override
+	public SqlPredicate toSql() {
+		return new SqlPredicate("date_time >= ? AND date_time < ?",
+				TimeUtils.toUtcTimestamp(fromDate.atStartOfDay()),
+				TimeUtils.toUtcTimestamp(toDate.plusDays(1).atStartOfDay()));
+	}
 }
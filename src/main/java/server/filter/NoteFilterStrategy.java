@@ -13,4 +13,13 @@ public class NoteFilterStrategy implements TransactionFilterStrategy {
 	public boolean filter (Transaction transaction) {
 		return transaction.getNote().equalsIgnoreCase(note);
 	}
+
+	// SQLite's NOCASE only folds ASCII, so other notes stay on the equalsIgnoreCase path
+	@Override
+	public SqlPredicate toSql() {
+		for (int i = 0; i < note.length(); i++) {
+			if (note.charAt(i) > 0x7F) return null;
+		}
+		return new SqlPredicate("note = ? COLLATE NOCASE", note);
+	}
 }
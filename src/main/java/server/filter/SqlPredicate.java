@@ -0,0 +1,32 @@
+package server.filter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parameterized SQL condition on the {@code transactions} table, e.g.
+ * {@code category = ?} with its bound values in placeholder order.
+ */
+public class SqlPredicate {
+    private final String clause;
+    private final List<Object> params;
+
+    public SqlPredicate(String clause, Object... params) {
+        this.clause = clause;
+        this.params = Collections.unmodifiableList(Arrays.asList(params));
+    }
+
+    public String getClause() {
+        return clause;
+    }
+
+    public List<Object> getParams() {
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return clause + " " + params;
+    }
+}
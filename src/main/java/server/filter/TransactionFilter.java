@@ -5,6 +5,7 @@ import java.util.List;
 
 import server.model.Transaction;
 
+// In-memory filtering of an already loaded list; to filter in the database, use TransactionService.findTransactions
 public class TransactionFilter {
     private final List<Transaction> transactions;
     private final List<TransactionFilterStrategy> filterStrategies = new ArrayList<>();
@@ -17,11 +18,22 @@ public class TransactionFilter {
         filterStrategies.add(strategy);
     }
 
+    // One pass over the list; each transaction stops at the first strategy that rejects it
     public List<Transaction> applyFilters() {
-        List<Transaction> filteredTransactions = new ArrayList<>(transactions);
-        for (TransactionFilterStrategy strategy : filterStrategies) {
-            filteredTransactions.removeIf(transaction -> !strategy.filter(transaction));
+        TransactionFilterStrategy[] strategies = filterStrategies.toArray(new TransactionFilterStrategy[0]);
+        List<Transaction> filteredTransactions = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (acceptsAll(strategies, transaction)) {
+                filteredTransactions.add(transaction);
+            }
         }
         return filteredTransactions;
     }
+
+    private static boolean acceptsAll(TransactionFilterStrategy[] strategies, Transaction transaction) {
+        for (TransactionFilterStrategy strategy : strategies) {
+            if (!strategy.filter(transaction)) return false;
+        }
+        return true;
+    }
 }
@@ -5,4 +5,13 @@ import server.model.Transaction;
 @FunctionalInterface
 public interface TransactionFilterStrategy {
     boolean filter(Transaction transaction);
+
+    /**
+     * The same condition as {@link #filter} expressed against the {@code transactions}
+     * table, or null if it cannot be (the default, e.g. for lambdas). Both forms must
+     * accept exactly the same rows.
+     */
+    default SqlPredicate toSql() {
+        return null;
+    }
 }
@@ -0,0 +1,122 @@
+package server.io;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+
+/**
+ * Says which CSV column holds which {@link server.model.Transaction} field, and how
+ * dates are written. Column indexes are zero-based; {@link #UNMAPPED} marks a field
+ * the file does not have.
+ * <p>
+ * Without a type column the sign of the amount decides the type, as in most bank
+ * statements: negative amounts are expenses and positive ones income. Without a
+ * date format, ISO dates with or without a time ({@code 2024-03-01T09:30},
+ * {@code 2024-03-01}) are accepted.
+ */
+public class CsvColumnMapping {
+    public static final int UNMAPPED = -1;
+
+    // Header names written by the CSV export
+    private static final String[] EXPORT_HEADER = {
+            "Date", "Type", "Amount", "Source Account", "Destination Account", "Category", "Note"
+    };
+
+    private int dateColumn = UNMAPPED;
+    private int typeColumn = UNMAPPED;
+    private int amountColumn = UNMAPPED;
+    private int sourceAccountColumn = UNMAPPED;
+    private int destinationAccountColumn = UNMAPPED;
+    private int categoryColumn = UNMAPPED;
+    private int noteColumn = UNMAPPED;
+    private char delimiter = ',';
+    private boolean hasHeader = true;
+    private DateTimeFormatter dateFormatter;
+    private String defaultSourceAccount;
+
+    // Layout produced by the Export Data form
+    public static CsvColumnMapping exportLayout() {
+        return fromHeader(EXPORT_HEADER);
+    }
+
+    /**
+     * Builds a mapping by matching header cells (case-insensitively) against the
+     * export's column names. Unrecognised columns are ignored.
+     */
+    public static CsvColumnMapping fromHeader(String[] header) {
+        CsvColumnMapping mapping = new CsvColumnMapping();
+        for (int i = 0; i < header.length; i++) {
+            switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                case "date": mapping.dateColumn = i; break;
+                case "type": mapping.typeColumn = i; break;
+                case "amount": mapping.amountColumn = i; break;
+                case "source account":
+                case "account": mapping.sourceAccountColumn = i; break;
+                case "destination account": mapping.destinationAccountColumn = i; break;
+                case "category": mapping.categoryColumn = i; break;
+                case "note":
+                case "description": mapping.noteColumn = i; break;
+                default: break;
+            }
+        }
+        return mapping;
+    }
+
+    // Checks that enough is mapped to build a transaction
+    public void validate() throws Exception {
+        if (dateColumn == UNMAPPED) throw new Exception("No date column is mapped.");
+        if (amountColumn == UNMAPPED) throw new Exception("No amount column is mapped.");
+        if (sourceAccountColumn == UNMAPPED && defaultSourceAccount == null)
+            throw new Exception("No account column is mapped and no default account is set.");
+    }
+
+    LocalDateTime parseDate(String value) {
+        String text = value.trim();
+        if (dateFormatter != null) {
+            TemporalAccessor parsed = dateFormatter.parseBest(text, LocalDateTime::from, LocalDate::from);
+            return parsed instanceof LocalDateTime ? (LocalDateTime) parsed : ((LocalDate) parsed).atStartOfDay();
+        }
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            return LocalDate.parse(text).atStartOfDay();
+        }
+    }
+
+    public int getDateColumn() { return dateColumn; }
+    public void setDateColumn(int dateColumn) { this.dateColumn = dateColumn; }
+
+    public int getTypeColumn() { return typeColumn; }
+    public void setTypeColumn(int typeColumn) { this.typeColumn = typeColumn; }
+
+    public int getAmountColumn() { return amountColumn; }
+    public void setAmountColumn(int amountColumn) { this.amountColumn = amountColumn; }
+
+    public int getSourceAccountColumn() { return sourceAccountColumn; }
+    public void setSourceAccountColumn(int sourceAccountColumn) { this.sourceAccountColumn = sourceAccountColumn; }
+
+    public int getDestinationAccountColumn() { return destinationAccountColumn; }
+    public void setDestinationAccountColumn(int destinationAccountColumn) { this.destinationAccountColumn = destinationAccountColumn; }
+
+    public int getCategoryColumn() { return categoryColumn; }
+    public void setCategoryColumn(int categoryColumn) { this.categoryColumn = categoryColumn; }
+
+    public int getNoteColumn() { return noteColumn; }
+    public void setNoteColumn(int noteColumn) { this.noteColumn = noteColumn; }
+
+    public char getDelimiter() { return delimiter; }
+    public void setDelimiter(char delimiter) { this.delimiter = delimiter; }
+
+    public boolean hasHeader() { return hasHeader; }
+    public void setHasHeader(boolean hasHeader) { this.hasHeader = hasHeader; }
+
+    public DateTimeFormatter getDateFormatter() { return dateFormatter; }
+    public void setDateFormatter(DateTimeFormatter dateFormatter) { this.dateFormatter = dateFormatter; }
+
+    // Account used for rows that have no account column, e.g. a statement exported from one bank account
+    public String getDefaultSourceAccount() { return defaultSourceAccount; }
+    public void setDefaultSourceAccount(String defaultSourceAccount) { this.defaultSourceAccount = defaultSourceAccount; }
+}
@@ -0,0 +1,192 @@
+package server.io;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import server.filter.TransactionFilterStrategy;
+import server.model.Account;
+import server.model.Category;
+import server.model.Transaction;
+import server.model.TransactionType;
+import server.service.EntityRegistry;
+import server.service.TransactionService;
+
+/**
+ * Writes transactions to a CSV file straight from the database cursor.
+ * <p>
+ * Rows are streamed through {@link TransactionService#forEachTransaction}, so only
+ * one row is in memory at a time whatever the export size. Each line is encoded
+ * into a reused buffer (dates via {@link DateTimeFormatter#formatTo}, amounts with
+ * integer arithmetic) and handed to a 64 KB buffered writer. Fields containing the
+ * delimiter, quotes or line breaks are quoted, so the output reads back through
+ * {@link CsvTransactionImporter}.
+ */
+public class CsvTransactionExporter {
+    public static final String HEADER = "Date,Type,Amount,Source Account,Destination Account,Category,Note";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int AMOUNT_DECIMALS = 6;
+    private static final long AMOUNT_SCALE = 1_000_000L;
+
+    private final TransactionService transactionService;
+    private final EntityRegistry registry = EntityRegistry.getInstance();
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    public CsvTransactionExporter() {
+        this(new TransactionService());
+    }
+
+    public CsvTransactionExporter(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    public ExportResult export(Path file, List<TransactionFilterStrategy> filters) throws Exception {
+        long start = System.nanoTime();
+        CountingOutputStream out = new CountingOutputStream(Files.newOutputStream(file));
+        long rows;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            rows = transactionService.forEachTransaction(filters, transaction -> writeRow(writer, transaction));
+        }
+        return new ExportResult(rows, out.getCount(), System.nanoTime() - start);
+    }
+
+    private void writeRow(Writer writer, Transaction t) throws IOException {
+        line.setLength(0);
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(t.getDateTime(), line);
+        line.append(',');
+        appendField(t.getType() == null ? null : t.getType().getLabel());
+        line.append(',');
+        appendAmount(t.getAmount());
+        line.append(',');
+        appendField(accountName(t.getSourceAccount()));
+        line.append(',');
+        if (t.getType() == TransactionType.TRANSFER) {
+            appendField(accountName(t.getDestinationAccount()));
+            line.append(',');
+            appendField(TransactionType.TRANSFER.getLabel());
+        } else {
+            line.append(',');
+            Category category = registry.getCategory(t.getCategory());
+            appendField(category == null ? null : category.getName());
+        }
+        line.append(',');
+        appendField(t.getNote());
+        line.append('\n');
+
+        // Copy through a reused array; Writer.append(CharSequence) would allocate a String per line
+        int length = line.length();
+        if (chars.length < length) chars = new char[Math.max(length, chars.length * 2)];
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+
+    private String accountName(int id) {
+        Account account = registry.getAccount(id);
+        return account == null ? null : account.getName();
+    }
+
+    private void appendField(String value) {
+        if (value == null) return;
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') line.append('"');
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    // Same digits as String.format("%f"), always with '.', without going through Formatter
+    private void appendAmount(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount) || Math.abs(amount) >= Long.MAX_VALUE / AMOUNT_SCALE) {
+            line.append(amount);
+            return;
+        }
+        long scaled = Math.round(Math.abs(amount) * AMOUNT_SCALE);
+        if (amount < 0 && scaled != 0) line.append('-');
+        line.append(scaled / AMOUNT_SCALE).append('.');
+        long fraction = scaled % AMOUNT_SCALE;
+        for (long digit = AMOUNT_SCALE / 10; digit > fraction && digit > 1; digit /= 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    /**
+     * Rows and bytes written by an export, and how fast.
+     */
+    public static class ExportResult {
+        private final long rows;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        private ExportResult(long rows, long bytes, long elapsedNanos) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        public double getMegabytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes / 1e6 * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Exported %,d rows (%.1f MB) in %.2f s: %,.0f rows/s, %.1f MB/s",
+                    rows, bytes / 1e6, elapsedNanos / 1e9, getRowsPerSecond(), getMegabytesPerSecond());
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package server.io;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import server.model.Account;
+import server.model.Category;
+import server.model.Transaction;
+import server.model.TransactionType;
+import server.service.EntityRegistry;
+import server.service.TransactionService;
+
+/**
+ * Streams transactions from a CSV file into the database.
+ * <p>
+ * The file is read through a buffered reader one record at a time, so memory use
+ * does not depend on the file size. Account and category names are resolved
+ * through {@link EntityRegistry}. Valid rows are collected into chunks of
+ * {@link #setChunkSize(int) chunkSize} and written with
+ * {@link TransactionService#addTransactions(Iterable)}, one SQL transaction per
+ * chunk; each committed chunk reaches {@code App} as change events. Rows that
+ * cannot be parsed, resolved or validated are skipped and reported in the
+ * {@link ImportResult}.
+ */
+public class CsvTransactionImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 5_000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final CsvColumnMapping mapping;
+    private final TransactionService transactionService;
+    private final EntityRegistry registry = EntityRegistry.getInstance();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private ProgressListener progressListener;
+
+    public CsvTransactionImporter(CsvColumnMapping mapping) {
+        this(mapping, new TransactionService());
+    }
+
+    public CsvTransactionImporter(CsvColumnMapping mapping, TransactionService transactionService) {
+        this.mapping = mapping;
+        this.transactionService = transactionService;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+        this.chunkSize = chunkSize;
+    }
+
+    // Called after every chunk is written and once at the end, on the importing thread
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Imports every record of {@code file}. Interrupting the importing thread stops
+     * the import before the next chunk is written; chunks written so far stay imported.
+     */
+    public ImportResult importFile(Path file) throws Exception {
+        mapping.validate();
+        long totalBytes = Files.size(file);
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            CsvRecordReader records = new CsvRecordReader(reader, mapping.getDelimiter());
+            List<Transaction> chunk = new ArrayList<>(chunkSize);
+
+            if (mapping.hasHeader()) records.next();
+            List<String> fields;
+            while ((fields = records.next()) != null) {
+                result.records++;
+                try {
+                    if (records.isUnterminated()) throw new Exception("Unterminated quoted field");
+                    Transaction transaction = toTransaction(fields);
+                    transactionService.validateTransaction(transaction);
+                    chunk.add(transaction);
+                } catch (Exception e) {
+                    result.addError("Line " + records.getRecordLine() + ": " + e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, result);
+                    reportProgress(result, in.getCount(), totalBytes);
+                }
+            }
+            writeChunk(chunk, result);
+            reportProgress(result, totalBytes, totalBytes);
+        } finally {
+            result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+        return result;
+    }
+
+    // First record of the file, for building a mapping from its column names
+    public static String[] readHeader(Path file, char delimiter) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = new CsvRecordReader(reader, delimiter).next();
+            return header == null ? new String[0] : header.toArray(new String[0]);
+        }
+    }
+
+    private void writeChunk(List<Transaction> chunk, ImportResult result) throws Exception {
+        if (chunk.isEmpty()) return;
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Import cancelled after " + result.imported + " transactions");
+        }
+        result.imported += transactionService.addTransactions(chunk);
+        chunk.clear();
+    }
+
+    private void reportProgress(ImportResult result, long bytesRead, long totalBytes) {
+        if (progressListener != null) {
+            progressListener.onProgress(bytesRead, totalBytes, result.imported, result.getSkipped());
+        }
+    }
+
+    private Transaction toTransaction(List<String> fields) throws Exception {
+        LocalDateTime dateTime = mapping.parseDate(field(fields, mapping.getDateColumn()));
+        double amount = Double.parseDouble(field(fields, mapping.getAmountColumn()).trim());
+
+        TransactionType type;
+        if (mapping.getTypeColumn() == CsvColumnMapping.UNMAPPED) {
+            type = amount < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+        } else {
+            type = parseType(field(fields, mapping.getTypeColumn()));
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setDateTime(dateTime);
+        transaction.setAmount(Math.abs(amount));
+        transaction.setType(type);
+        transaction.setNote(mapping.getNoteColumn() == CsvColumnMapping.UNMAPPED ? "" : field(fields, mapping.getNoteColumn()));
+
+        String sourceName = mapping.getSourceAccountColumn() == CsvColumnMapping.UNMAPPED
+                ? mapping.getDefaultSourceAccount() : field(fields, mapping.getSourceAccountColumn());
+        transaction.setSourceAccount(resolveAccount(sourceName));
+
+        if (type == TransactionType.TRANSFER) {
+            transaction.setDestinationAccount(resolveAccount(field(fields, mapping.getDestinationAccountColumn())));
+        } else {
+            String categoryName = field(fields, mapping.getCategoryColumn());
+            Category category = registry.findCategoryByName(categoryName, type);
+            if (category == null) throw new Exception("Unknown " + type.getLabel().toLowerCase() + " category '" + categoryName + "'");
+            transaction.setCategory(category.getId());
+        }
+        return transaction;
+    }
+
+    private int resolveAccount(String name) throws Exception {
+        Account account = registry.findAccountByName(name);
+        if (account == null) throw new Exception("Unknown account '" + name + "'");
+        return account.getId();
+    }
+
+    private static TransactionType parseType(String value) throws Exception {
+        TransactionType type = TransactionType.fromLabel(value);
+        if (type != null) return type;
+        throw new Exception("Unknown transaction type '" + value + "'");
+    }
+
+    private static String field(List<String> fields, int column) throws Exception {
+        if (column == CsvColumnMapping.UNMAPPED) return "";
+        if (column >= fields.size()) throw new Exception("Missing column " + (column + 1));
+        return fields.get(column);
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes, long imported, long skipped);
+    }
+
+    /**
+     * Counts of what an import read, wrote and skipped, with the first
+     * {@value #MAX_REPORTED_ERRORS} reasons for skipping.
+     */
+    public static class ImportResult {
+        private long records;
+        private long imported;
+        private long skipped;
+        private long elapsedMillis;
+        private final List<String> errors = new ArrayList<>();
+
+        private void addError(String message) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(message);
+        }
+
+        public long getRecords() { return records; }
+        public long getImported() { return imported; }
+        public long getSkipped() { return skipped; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+        @Override
+        public String toString() {
+            return String.format("Imported %d of %d rows in %.1f s (%d skipped)",
+                    imported, records, elapsedMillis / 1000.0, skipped);
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain the delimiter, doubled
+     * quotes and line breaks. The field list and builder are reused between records.
+     * A quote left open runs to the end of the file; that last record is flagged
+     * {@link #isUnterminated() unterminated}.
+     */
+    private static class CsvRecordReader {
+        private final BufferedReader reader;
+        private final char delimiter;
+        private final List<String> fields = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+        private long line;
+        private long recordLine;
+        private boolean unterminated;
+
+        private CsvRecordReader(BufferedReader reader, char delimiter) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+        }
+
+        // Next non-blank record, or null at end of file
+        private List<String> next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                if (text == null) return null;
+                line++;
+            } while (text.isEmpty());
+            recordLine = line;
+
+            fields.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            unterminated = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) break;
+                    // Line break inside a quoted field
+                    text = reader.readLine();
+                    if (text == null) {
+                        unterminated = true;
+                        break;
+                    }
+                    line++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private long getRecordLine() {
+            return recordLine;
+        }
+
+        private boolean isUnterminated() {
+            return unterminated;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
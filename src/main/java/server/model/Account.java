@@ -1,8 +1,5 @@
 package server.model;
 
-import gui.app.App;
-import server.service.AccountService;
-
 public class Account {
 	private int id;
 	private String name;
@@ -63,14 +60,6 @@ public class Account {
 		this.goal = goal;
 	}
 	
-	public double getTimeRelatedBalance () {
-		App app = App.getInstance();
-		AccountService accountService = new AccountService();
-		
-		if (app.latestTime()) return this.balance;
-		return accountService.getBalance(this.id, app.getYear(), app.getMonth());
-	}
-	
 	@Override
 	public String toString() {
 		return getName();
@@ -4,24 +4,25 @@ public class Category {
 	private int id;
 	private String name;
 	private Double budget; // Budget can be null
-	private String type;
+	private TransactionType type; // INCOME or EXPENSE
 
 	// Constructors
 	public Category() {
 		name = "";
 	}
 
-	public Category(int id, String name, Double budget, String type) {
+	public Category(int id, String name, Double budget, TransactionType type) {
 		this.id = id;
 		this.name = name;
 		this.budget = budget;
+		this.type = type;
 	}
 
-	public String getType() {
+	public TransactionType getType() {
 		return type;
 	}
 
-	public void setType(String type) {
+	public void setType(TransactionType type) {
 		this.type = type;
 	}
 
@@ -2,8 +2,7 @@ package server.model;
 
 import java.time.LocalDateTime;
 
-import server.service.AccountService;
-import server.service.CategoryService;
+import server.service.EntityRegistry;
 import server.utils.TimeUtils;
 
 public class Transaction {
@@ -14,13 +13,13 @@ public class Transaction {
     private int category;        // Now represented by category ID (int)
     private int destinationAccount; // For transfers, represented by account ID (int)
     private String note;
-    private String type; // income, expense, or transfer
+    private TransactionType type;
 
     // Constructors
     public Transaction() {
     }
 
-    public Transaction(int id, LocalDateTime dateTime, double amount, int sourceAccount, int category, int destinationAccount, String note, String type) {
+    public Transaction(int id, LocalDateTime dateTime, double amount, int sourceAccount, int category, int destinationAccount, String note, TransactionType type) {
         this.id = id;
         this.dateTime = dateTime;
         this.amount = amount;
@@ -88,31 +87,29 @@ public class Transaction {
         this.note = note;
     }
 
-    public String getType() {
+    public TransactionType getType() {
         return type;
     }
 
-    public void setType(String type) {
+    public void setType(TransactionType type) {
         this.type = type;
     }
 
     public String getSourceAccountName() {
-        AccountService acc = new AccountService();
-        return acc.getAccount(sourceAccount).getName();
+        Account account = EntityRegistry.getInstance().getAccount(sourceAccount);
+        return account == null ? null : account.getName();
     }
 
     public String getCategoryName() {
-    	if (getType().equals("Transfer")) return getType();
-        CategoryService cat = new CategoryService();
-        Category category = cat.getCategory(this.category);
-        return category.getName();
+    	if (type == TransactionType.TRANSFER) return type.getLabel();
+        Category category = EntityRegistry.getInstance().getCategory(this.category);
+        return category == null ? null : category.getName();
     }
 
     public String getDestinationAccountName() {
-    	if (!getType().equals("Transfer")) return null;
-        AccountService acc = new AccountService();
-        Account account = acc.getAccount(destinationAccount);
-        return account.getName();
+    	if (type != TransactionType.TRANSFER) return null;
+        Account account = EntityRegistry.getInstance().getAccount(destinationAccount);
+        return account == null ? null : account.getName();
     }
 
     public Transaction prototype() {
@@ -136,7 +133,7 @@ public class Transaction {
     	transaction.setSourceAccount(0);
     	transaction.setDestinationAccount(0);
     	transaction.setNote("");
-    	transaction.setType("Expense");
+    	transaction.setType(TransactionType.EXPENSE);
     	return transaction;
     }
     
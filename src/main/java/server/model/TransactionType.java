@@ -0,0 +1,50 @@
+package server.model;
+
+/**
+ * Kind of a transaction, and of a category (income or expense only).
+ * <p>
+ * Stored in the database as {@link #getCode()}; the label is what the user sees and
+ * what CSV files contain.
+ */
+public enum TransactionType {
+    INCOME(1, "Income"),
+    EXPENSE(2, "Expense"),
+    TRANSFER(3, "Transfer");
+
+    private static final TransactionType[] BY_CODE = { null, INCOME, EXPENSE, TRANSFER };
+
+    private final int code;
+    private final String label;
+
+    TransactionType(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // null for 0 (SQL NULL) and unknown codes
+    public static TransactionType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    // Case-insensitive label, e.g. "Income" or "income"; null if it is none of them
+    public static TransactionType fromLabel(String label) {
+        if (label == null) return null;
+        for (TransactionType type : values()) {
+            if (type.label.equalsIgnoreCase(label.trim())) return type;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
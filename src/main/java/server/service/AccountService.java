@@ -1,14 +1,18 @@
 package server.service;
 
 import server.dao.AccountDAO;
+import server.dao.BalanceSnapshotDAO;
 import server.model.Account;
+import server.utils.IntDoubleMap;
 
+import java.time.YearMonth;
 import java.util.List;
 
 import gui.app.App;
 
 public class AccountService {
     private final AccountDAO accountDAO;
+    private final BalanceSnapshotDAO snapshotDAO = new BalanceSnapshotDAO();
 
     public AccountService() {
         accountDAO = new AccountDAO();
@@ -17,18 +21,15 @@ public class AccountService {
     public void addAccount(Account account) throws Exception {
     	assertAccount(account);
         accountDAO.insert(account);
-        App.getInstance().loadAccountData();
     }
 
     public void updateAccount(Account account) throws Exception {
     	assertAccount(account);
         accountDAO.update(account);
-        App.getInstance().loadAccountData();
     }
 
     public void removeAccount(int accountId) {
         accountDAO.delete(accountId);
-        App.getInstance().loadAccountData();
     }
 
     public List<Account> getAllAccounts() {
@@ -41,13 +42,49 @@ public class AccountService {
     
     public void adjustBalance (int id, double amount) {
     	accountDAO.adjustAccountBalance(id, amount);
-    	App.getInstance().loadAccountData();
     }
     
     public double getBalance (int id, int year, int month) {
     	return accountDAO.getBalanceAtEndOfMonth(id, month, year);
     }
+
+    // End-of-month balances of all accounts, keyed by account id, from one query
+    public IntDoubleMap getBalancesAt(int year, int month) {
+        return accountDAO.getBalancesAtEndOfMonth(month, year);
+    }
+
+    // Balances for the month selected in the app
+    public IntDoubleMap getTimeRelatedBalances() {
+        App app = App.getInstance();
+        return getTimeRelatedBalances(app.getYear(), app.getMonth());
+    }
+
+    // The loaded current balances for the current month, otherwise one snapshot query for all accounts
+    public IntDoubleMap getTimeRelatedBalances(int year, int month) {
+        if (!YearMonth.now().equals(YearMonth.of(year, month))) return getBalancesAt(year, month);
+
+        List<Account> accounts = App.getInstance().getAccountList();
+        IntDoubleMap balances = new IntDoubleMap(accounts.size());
+        for (Account account : accounts) {
+            balances.put(account.getId(), account.getBalance());
+        }
+        return balances;
+    }
     
+    /**
+     * Checks the monthly balance snapshots against the transactions and rebuilds them
+     * if they disagree.
+     *
+     * @return the number of (account, month) snapshots that were wrong
+     */
+    public int verifyBalanceHistory() throws Exception {
+        int mismatches = snapshotDAO.verify();
+        if (mismatches > 0) {
+            snapshotDAO.rebuild();
+        }
+        return mismatches;
+    }
+
     private void assertAccount(Account account) throws Exception {
     	if (account.getName().isEmpty()) 
     		throw new Exception("Account/Saving name cannot be null.");
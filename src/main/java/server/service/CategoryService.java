@@ -5,8 +5,6 @@ import server.model.Category;
 
 import java.util.List;
 
-import gui.app.App;
-
 public class CategoryService {
     private final CategoryDAO categoryDAO;
 
@@ -17,18 +15,15 @@ public class CategoryService {
     public void addCategory(Category category) throws Exception {
     	assertCategory(category);
         categoryDAO.insert(category);
-        App.getInstance().loadCategoryData();
     }
 
     public void updateCategory(Category category) throws Exception {
     	assertCategory(category);
         categoryDAO.update(category);
-        App.getInstance().loadCategoryData();
     }
 
     public void removeCategory(int categoryId) {
         categoryDAO.delete(categoryId);
-        App.getInstance().loadCategoryData();
     }
 
     //Để export
@@ -0,0 +1,150 @@
+package server.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.dao.AccountDAO;
+import server.dao.CategoryDAO;
+import server.event.AccountChanged;
+import server.event.CategoryChanged;
+import server.event.ChangeBus;
+import server.model.Account;
+import server.model.Category;
+import server.model.TransactionType;
+
+/**
+ * In-memory id lookup for accounts and categories, so resolving the names shown
+ * next to each transaction is an array access instead of a query per row.
+ * <p>
+ * Each table is loaded lazily in one query into an array indexed by id (ids are
+ * SQLite autoincrement keys, so the arrays stay dense), plus a case-insensitive
+ * name index used when importing. Account and category change events on the
+ * {@link ChangeBus} invalidate the affected table; the next lookup reloads it. (Account
+ * balances held here are not kept current; read them from {@code App}.) Every invalidation bumps a version
+ * number, and a load that raced with an invalidation is used once but never installed.
+ */
+public class EntityRegistry {
+    private static EntityRegistry instance;
+
+    private final AccountDAO accountDAO = new AccountDAO();
+    private final CategoryDAO categoryDAO = new CategoryDAO();
+    private final AtomicLong accountVersion = new AtomicLong();
+    private final AtomicLong categoryVersion = new AtomicLong();
+    private volatile AccountTable accounts;
+    private volatile CategoryTable categories;
+
+    private EntityRegistry() {
+        ChangeBus.getInstance().subscribe(AccountChanged.class, event -> invalidateAccounts());
+        ChangeBus.getInstance().subscribe(CategoryChanged.class, event -> invalidateCategories());
+    }
+
+    public static synchronized EntityRegistry getInstance() {
+        if (instance == null) instance = new EntityRegistry();
+        return instance;
+    }
+
+    public Account getAccount(int id) {
+        Account[] byId = accountTable().byId;
+        return id > 0 && id < byId.length ? byId[id] : null;
+    }
+
+    public Category getCategory(int id) {
+        Category[] byId = categoryTable().byId;
+        return id > 0 && id < byId.length ? byId[id] : null;
+    }
+
+    // Case-insensitive; null if no account has this name
+    public Account findAccountByName(String name) {
+        return name == null ? null : accountTable().byName.get(normalize(name));
+    }
+
+    // Case-insensitive within one category type (INCOME or EXPENSE); null if not found
+    public Category findCategoryByName(String name, TransactionType type) {
+        if (name == null || type == null) return null;
+        return categoryTable().byName.get(type.getCode() + ":" + normalize(name));
+    }
+
+    public void invalidateAccounts() {
+        accountVersion.incrementAndGet();
+        accounts = null;
+    }
+
+    public void invalidateCategories() {
+        categoryVersion.incrementAndGet();
+        categories = null;
+    }
+
+    private AccountTable accountTable() {
+        AccountTable table = accounts;
+        return table != null ? table : loadAccounts();
+    }
+
+    private CategoryTable categoryTable() {
+        CategoryTable table = categories;
+        return table != null ? table : loadCategories();
+    }
+
+    private AccountTable loadAccounts() {
+        long version = accountVersion.get();
+        List<Account> list = accountDAO.findAll();
+        int maxId = 0;
+        for (Account account : list) maxId = Math.max(maxId, account.getId());
+
+        AccountTable table = new AccountTable(new Account[maxId + 1], new HashMap<>());
+        for (Account account : list) {
+            table.byId[account.getId()] = account;
+            table.byName.putIfAbsent(normalize(account.getName()), account);
+        }
+
+        synchronized (this) {
+            if (accountVersion.get() == version) accounts = table;
+        }
+        return table;
+    }
+
+    private CategoryTable loadCategories() {
+        long version = categoryVersion.get();
+        List<Category> list = categoryDAO.findAll();
+        int maxId = 0;
+        for (Category category : list) maxId = Math.max(maxId, category.getId());
+
+        CategoryTable table = new CategoryTable(new Category[maxId + 1], new HashMap<>());
+        for (Category category : list) {
+            table.byId[category.getId()] = category;
+            if (category.getType() == null) continue;
+            table.byName.putIfAbsent(category.getType().getCode() + ":" + normalize(category.getName()), category);
+        }
+
+        synchronized (this) {
+            if (categoryVersion.get() == version) categories = table;
+        }
+        return table;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class AccountTable {
+        private final Account[] byId;
+        private final Map<String, Account> byName;
+
+        private AccountTable(Account[] byId, Map<String, Account> byName) {
+            this.byId = byId;
+            this.byName = byName;
+        }
+    }
+
+    private static class CategoryTable {
+        private final Category[] byId;
+        private final Map<String, Category> byName;
+
+        private CategoryTable(Category[] byId, Map<String, Category> byName) {
+            this.byId = byId;
+            this.byName = byName;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package server.service;
 
 import server.dao.TransactionDAO;
+import server.filter.CompiledFilter;
+import server.filter.TransactionFilterStrategy;
 import server.model.Transaction;
+import server.model.TransactionType;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import gui.app.App;
-
 
 public class TransactionService {
     private final TransactionDAO transactionDAO;
@@ -18,18 +20,25 @@ public class TransactionService {
     public void addTransaction(Transaction transaction) throws Exception {
     	assertTransaction(transaction);
         transactionDAO.insert(transaction);
-        App.getInstance().loadTransactionData();
+    }
+
+    /**
+     * Inserts all rows in one SQL transaction. Rows are not checked again here;
+     * pass each through {@link #validateTransaction(Transaction)} first.
+     *
+     * @return the number of rows inserted
+     */
+    public int addTransactions(Iterable<Transaction> transactions) throws Exception {
+        return transactionDAO.insertAll(transactions);
     }
 
     public void updateTransaction(Transaction transaction) throws Exception {
     	assertTransaction(transaction);
         transactionDAO.update(transaction);
-        App.getInstance().loadTransactionData();
     }
 
     public void removeTransaction(int transactionId) {
         transactionDAO.remove(transactionId);
-        App.getInstance().loadTransactionData();
     }
 
     public Transaction getTransaction(int id) {
@@ -39,19 +48,56 @@ public class TransactionService {
     public List<Transaction> getTransactionsByMonth (int month, int year) {
         return transactionDAO.findByMonth(month, year);
     }
-    
+
     public List<Transaction> getAllTransactions () {
     	return transactionDAO.getAllTransactions();
     }
     
+    /**
+     * Streams every transaction accepted by all {@code filters} to {@code handler}
+     * without materializing the table. Filters that describe themselves as SQL are
+     * compiled into one WHERE clause; the rest are checked in one pass over each row
+     * as it comes off the cursor. The handler receives a reused instance (see
+     * {@link TransactionDAO#forEach}).
+     *
+     * @return the number of transactions delivered to the handler
+     */
+    public long forEachTransaction(List<TransactionFilterStrategy> filters, TransactionDAO.TransactionHandler handler) throws Exception {
+        CompiledFilter compiled = CompiledFilter.compile(filters);
+        if (!compiled.hasResidual()) {
+            return transactionDAO.forEach(compiled.getWhereClause(), compiled.getParams(), handler);
+        }
+        long[] delivered = new long[1];
+        transactionDAO.forEach(compiled.getWhereClause(), compiled.getParams(), transaction -> {
+            if (!compiled.accepts(transaction)) return;
+            delivered[0]++;
+            handler.handle(transaction);
+        });
+        return delivered[0];
+    }
+
+    // Filtered query evaluated in the database where possible (see forEachTransaction)
+    public List<Transaction> findTransactions(List<TransactionFilterStrategy> filters) throws Exception {
+        List<Transaction> transactions = new ArrayList<>();
+        forEachTransaction(filters, transaction -> transactions.add(transaction.prototype()));
+        return transactions;
+    }
+
+    // Throws with a user-facing message if the transaction cannot be stored
+    public void validateTransaction(Transaction transaction) throws Exception {
+        assertTransaction(transaction);
+    }
+
     private void assertTransaction (Transaction transaction) throws Exception {
     	if (transaction.getAmount() < 0) 
     		throw new Exception("Amount cannot be negative");
     	if (transaction.getSourceAccount() == 0) 
     		throw new Exception("Source account cannot be null");
-    	if (transaction.getType().equals("Transfer") && transaction.getDestinationAccount() == 0) 
+    	if (transaction.getType() == null)
+    		throw new Exception("Type cannot be null");
+    	if (transaction.getType() == TransactionType.TRANSFER && transaction.getDestinationAccount() == 0) 
     		throw new Exception("Destination account cannot be null");
-    	if (!transaction.getType().equals("Transfer") && transaction.getCategory() == 0)
+    	if (transaction.getType() != TransactionType.TRANSFER && transaction.getCategory() == 0)
     		throw new Exception("Category cannot be null");
     }
 }
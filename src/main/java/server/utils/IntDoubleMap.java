@@ -0,0 +1,102 @@
+package server.utils;
+
+/**
+ * Map from int keys to double values without boxing either.
+ * <p>
+ * Open addressing with linear probing over parallel arrays, kept at most half full.
+ * Entries cannot be removed; build a new map instead.
+ */
+public class IntDoubleMap {
+    private int[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntDoubleMap() {
+        this(16);
+    }
+
+    public IntDoubleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new double[capacity];
+        used = new boolean[capacity];
+    }
+
+    public void put(int key, double value) {
+        int slot = slotOf(key);
+        if (used[slot]) {
+            values[slot] = value;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size * 2 > keys.length) grow();
+    }
+
+    public double get(int key, double defaultValue) {
+        int slot = slotOf(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        return used[slotOf(key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) sum += values[i];
+        }
+        return sum;
+    }
+
+    // The slot holding key, or the empty slot where it would go
+    private int slotOf(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Spreads sequential ids across the table
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (!used[i]) continue;
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(keys[i]).append('=').append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
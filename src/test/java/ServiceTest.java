@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import server.model.Account;
 import server.model.Category;
 import server.model.Transaction;
+import server.model.TransactionType;
 import server.service.AccountService;
 import server.service.CategoryService;
 import server.service.TransactionService;
@@ -89,7 +90,7 @@ public class ServiceTest {
     public void testAddCategory() {
         Category category = new Category();
         category.setName("Salary");
-        category.setType("income");
+        category.setType(TransactionType.INCOME);
         category.setBudget(5000.0);
 
         categoryService.addCategory(category);
@@ -105,7 +106,7 @@ public class ServiceTest {
     public void testEditCategory() {
         Category category = new Category();
         category.setName("Salary");
-        category.setType("income");
+        category.setType(TransactionType.INCOME);
         category.setBudget(5000.0);
         categoryService.addCategory(category);
 
@@ -125,7 +126,7 @@ public class ServiceTest {
     public void testRemoveCategory() {
         Category category = new Category();
         category.setName("Salary");
-        category.setType("income");
+        category.setType(TransactionType.INCOME);
         category.setBudget(5000.0);
         categoryService.addCategory(category);
 
@@ -147,7 +148,7 @@ public class ServiceTest {
 
         Category category = new Category();
         category.setName("Food");
-        category.setType("expense");
+        category.setType(TransactionType.EXPENSE);
         category.setBudget(500.0);
         categoryService.addCategory(category);
 
@@ -163,7 +164,7 @@ public class ServiceTest {
         transaction.setSourceAccount(sourceAccountId);
         transaction.setCategory(categoryId);
         transaction.setNote("Grocery shopping");
-        transaction.setType("Expense");
+        transaction.setType(TransactionType.EXPENSE);
 
         transactionService.addTransaction(transaction);
 
@@ -171,7 +172,7 @@ public class ServiceTest {
         assertTrue(transactions.size() > 0);
         Transaction addedTransaction = transactions.get(transactions.size() - 1);
         assertEquals(100.0, addedTransaction.getAmount());
-        assertEquals("expense", addedTransaction.getType());
+        assertEquals(TransactionType.EXPENSE, addedTransaction.getType());
         assertEquals(sourceAccountId, addedTransaction.getSourceAccount());
         assertEquals(categoryId, addedTransaction.getCategory());
         assertEquals("Grocery shopping", addedTransaction.getNote());
@@ -0,0 +1,208 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import gui.app.MonthAggregate;
+import gui.components.chart.util.GraphDataConverter;
+import gui.components.chart.util.GraphDataPoint;
+import server.model.Account;
+import server.model.Transaction;
+import server.model.TransactionType;
+
+/**
+ * The chart data the Overview and Accounts pages build for the current month: from the
+ * month's MonthAggregate, as the pages do now, against the TreeMap converters they used
+ * to run over the month's transaction list on every render.
+ * <p>
+ * {@code overview} and {@code accounts} include building the aggregate, as on the
+ * first render of a month; the {@code Cached} variants start from the aggregate the
+ * month cache keeps, as on every later render. Building the aggregate walks the rows
+ * like the legacy converters do, so {@code overview} costs about what
+ * {@code overviewLegacy} does; the gain is that it happens once per month.
+ * <p>
+ * Run with the test classpath: {@code java benchmark.GraphDataConverterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphDataConverterBenchmark {
+    private static final int ACCOUNTS = 5;
+
+    @Param({ "1000", "10000", "100000" })
+    private int rows;
+
+    private YearMonth month;
+    private List<Transaction> transactions;
+    private List<Account> accounts;
+    private MonthAggregate aggregate;
+
+    // The current month up to today, newest first as the DAO returns it
+    @Setup
+    public void generate() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        month = YearMonth.from(now);
+        long spanMinutes = (now.getDayOfMonth() - 1) * 24L * 60 + now.getHour() * 60 + now.getMinute();
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Transaction t = new Transaction();
+            t.setId(i + 1);
+            t.setDateTime(now.minusMinutes((long) (random.nextDouble() * spanMinutes)));
+            t.setAmount(1 + random.nextInt(500_000) / 100.0);
+            int kind = random.nextInt(10);
+            t.setType(kind == 0 ? TransactionType.TRANSFER : kind < 4 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            t.setSourceAccount(1 + random.nextInt(ACCOUNTS));
+            if (t.getType() == TransactionType.TRANSFER) t.setDestinationAccount(1 + random.nextInt(ACCOUNTS));
+            transactions.add(t);
+        }
+        transactions.sort((a, b) -> b.getDateTime().compareTo(a.getDateTime()));
+        accounts = new ArrayList<>();
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            accounts.add(new Account(id, "Account " + id, "Account", 1_000_000, 0));
+        }
+        aggregate = MonthAggregate.of(month, transactions);
+    }
+
+    @Benchmark
+    public void overviewLegacy(Blackhole blackhole) {
+        blackhole.consume(Legacy.convertToGraphDataPoints(transactions, TransactionType.INCOME));
+        blackhole.consume(Legacy.convertToGraphDataPoints(transactions, TransactionType.EXPENSE));
+    }
+
+    @Benchmark
+    public void overview(Blackhole blackhole) {
+        overview(MonthAggregate.of(month, transactions), blackhole);
+    }
+
+    @Benchmark
+    public void overviewCached(Blackhole blackhole) {
+        overview(aggregate, blackhole);
+    }
+
+    @Benchmark
+    public void accountsLegacy(Blackhole blackhole) {
+        for (Account account : accounts) {
+            blackhole.consume(Legacy.convertToAccountBalance(transactions, account));
+            blackhole.consume(Legacy.convertToAccountFlow(transactions, account, true));
+            blackhole.consume(Legacy.convertToAccountFlow(transactions, account, false));
+        }
+    }
+
+    @Benchmark
+    public void accounts(Blackhole blackhole) {
+        accounts(MonthAggregate.of(month, transactions), blackhole);
+    }
+
+    @Benchmark
+    public void accountsCached(Blackhole blackhole) {
+        accounts(aggregate, blackhole);
+    }
+
+    private static void overview(MonthAggregate aggregate, Blackhole blackhole) {
+        blackhole.consume(GraphDataConverter.convertToIncome(aggregate));
+        blackhole.consume(GraphDataConverter.convertToExpense(aggregate));
+    }
+
+    private void accounts(MonthAggregate aggregate, Blackhole blackhole) {
+        for (Account account : accounts) {
+            blackhole.consume(GraphDataConverter.convertToAccountBalance(aggregate, account, account.getBalance()));
+            blackhole.consume(GraphDataConverter.convertToAccountIncome(aggregate, account));
+            blackhole.consume(GraphDataConverter.convertToAccountExpense(aggregate, account));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(GraphDataConverterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // The converters as they were: TreeMaps of boxed totals per date, rebuilt from the list on every call
+    private static class Legacy {
+        static List<GraphDataPoint> convertToGraphDataPoints(List<Transaction> transactions, TransactionType type) {
+            Map<LocalDate, Double> dailyTotals = new TreeMap<>();
+            for (Transaction transaction : transactions) {
+                LocalDate date = transaction.getDateTime().toLocalDate();
+                if (transaction.getType() == type) {
+                    dailyTotals.put(date, dailyTotals.getOrDefault(date, 0.0) + transaction.getAmount());
+                }
+            }
+            List<GraphDataPoint> dataPoints = new ArrayList<>();
+            for (Map.Entry<LocalDate, Double> entry : dailyTotals.entrySet()) {
+                dataPoints.add(new GraphDataPoint(entry.getKey(), entry.getValue()));
+            }
+            return dataPoints;
+        }
+
+        static List<GraphDataPoint> convertToAccountBalance(List<Transaction> transactions, Account account) {
+            Map<LocalDate, Double> dailyTotals = new TreeMap<>();
+            for (Transaction transaction : transactions) {
+                LocalDate date = transaction.getDateTime().toLocalDate();
+                double amount = transaction.getAmount();
+                if (transaction.getType() == TransactionType.INCOME && transaction.getSourceAccount() == account.getId()) {
+                    dailyTotals.put(date, dailyTotals.getOrDefault(date, 0.0) + amount);
+                } else if (transaction.getType() == TransactionType.EXPENSE && transaction.getSourceAccount() == account.getId()) {
+                    dailyTotals.put(date, dailyTotals.getOrDefault(date, 0.0) - amount);
+                } else if (transaction.getType() == TransactionType.TRANSFER) {
+                    if (transaction.getSourceAccount() == account.getId()) {
+                        dailyTotals.put(date, dailyTotals.getOrDefault(date, 0.0) - amount);
+                    } else if (transaction.getDestinationAccount() == account.getId()) {
+                        dailyTotals.put(date, dailyTotals.getOrDefault(date, 0.0) + amount);
+                    }
+                }
+            }
+            List<GraphDataPoint> dataPoints = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            double cumulativeBalance = account.getBalance();
+            for (LocalDate date = today; !date.isBefore(today.withDayOfMonth(1)); date = date.minusDays(1)) {
+                dataPoints.add(0, new GraphDataPoint(date, cumulativeBalance));
+                cumulativeBalance -= dailyTotals.getOrDefault(date, 0.0);
+            }
+            return dataPoints;
+        }
+
+        // Income and incoming transfers (in), or expenses and outgoing transfers
+        static List<GraphDataPoint> convertToAccountFlow(List<Transaction> transactions, Account account, boolean in) {
+            Map<LocalDate, Double> totals = new TreeMap<>();
+            for (Transaction transaction : transactions) {
+                LocalDate date = transaction.getDateTime().toLocalDate();
+                boolean counts = in
+                        ? transaction.getType() == TransactionType.INCOME && transaction.getSourceAccount() == account.getId()
+                                || transaction.getType() == TransactionType.TRANSFER && transaction.getDestinationAccount() == account.getId()
+                        : transaction.getType() == TransactionType.EXPENSE && transaction.getSourceAccount() == account.getId()
+                                || transaction.getType() == TransactionType.TRANSFER && transaction.getSourceAccount() == account.getId();
+                if (counts) totals.put(date, totals.getOrDefault(date, 0.0) + transaction.getAmount());
+            }
+            List<GraphDataPoint> dataPoints = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            for (LocalDate date = today.withDayOfMonth(1); !date.isAfter(today); date = date.plusDays(1)) {
+                dataPoints.add(new GraphDataPoint(date, totals.getOrDefault(date, 0.0)));
+            }
+            return dataPoints;
+        }
+    }
+}
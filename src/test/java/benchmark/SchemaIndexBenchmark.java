@@ -0,0 +1,294 @@
+package benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import server.dao.AccountDAO;
+import server.dao.ConnectionPool;
+import server.dao.SchemaMigrator;
+import server.dao.TransactionDAO;
+import server.filter.AccountFilterStrategy;
+import server.filter.DateFilterStrategy;
+import server.filter.TransactionFilterStrategy;
+import server.model.Account;
+import server.model.Category;
+import server.model.Transaction;
+import server.model.TransactionType;
+import server.service.TransactionService;
+import server.utils.TimeUtils;
+
+/**
+ * Query plans and latency of the main transaction access paths before and after
+ * the index and balance snapshot migrations, on a synthetic ledger in a temporary database.
+ * <p>
+ * Run with the test classpath: {@code java benchmark.SchemaIndexBenchmark [rows]} (default 1,000,000).
+ */
+public class SchemaIndexBenchmark {
+    private static final int ACCOUNTS = 10;
+    private static final int CATEGORIES = 20;
+    private static final int YEARS = 10;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+
+    // End-of-month balance as computed before the snapshot table existed: sums every later transaction.
+    // The type values are filled in per schema version, labels before migration 4 and codes after.
+    private static final String LEGACY_BALANCE_SQL = "WITH AccountTransactions AS ( "
+            + "SELECT CASE WHEN type = %1$s THEN -amount WHEN type = %2$s THEN amount "
+            + "WHEN type = %3$s AND source_account = ? THEN amount "
+            + "WHEN type = %3$s AND destination_account = ? THEN -amount ELSE 0 END AS balance_change "
+            + "FROM transactions WHERE (source_account = ? OR destination_account = ?) "
+            + "AND date_time >= strftime('%%s', ?, 'start of month', '+1 month') * 1000) "
+            + "SELECT (SELECT balance FROM accounts WHERE id = ?) + COALESCE(SUM(balance_change), 0) FROM AccountTransactions";
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path db = Files.createTempFile("ledger-benchmark", ".db");
+        System.setProperty("moneymanager.db.url", "jdbc:sqlite:" + db);
+
+        try {
+            SchemaMigrator migrator = new SchemaMigrator();
+            migrator.migrate(1);
+            int[] ids = populate(rows);
+
+            Map<String, double[]> before = measure("Before indexes (schema version " + migrator.getCurrentVersion() + ")", ids, false);
+            long start = System.nanoTime();
+            migrator.migrate();
+            System.out.printf("%nMigrated to version %d in %.1f s%n", migrator.getCurrentVersion(), (System.nanoTime() - start) / 1e9);
+            Map<String, double[]> after = measure("After indexes (schema version " + migrator.getCurrentVersion() + ")", ids, true);
+
+            System.out.printf("%n%-32s %12s %12s %9s%n", "query (median ms)", "before", "after", "speedup");
+            for (String query : after.keySet()) {
+                double a = after.get(query)[0];
+                if (before.containsKey(query)) {
+                    double b = before.get(query)[0];
+                    System.out.printf("%-32s %12.2f %12.2f %8.1fx%n", query, b, a, b / a);
+                } else {
+                    System.out.printf("%-32s %12s %12.2f%n", query, "-", a);
+                }
+            }
+        } finally {
+            ConnectionPool.getInstance().shutdown();
+            for (String suffix : Arrays.asList("", "-wal", "-shm")) {
+                Files.deleteIfExists(Paths.get(db + suffix));
+            }
+        }
+    }
+
+    // Returns {accountId, categoryId} used by the queries
+    private static int[] populate(int rows) throws Exception {
+        AccountDAO accountDAO = new AccountDAO();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setName("Account " + i);
+            account.setGroup("Account");
+            accountDAO.insert(account);
+        }
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            category.setType(i % 4 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            category.setBudget(0.0);
+            categories.add(category);
+        }
+        insertCategories(categories);
+        int[] accountIds = accountDAO.findAll().stream().mapToInt(Account::getId).toArray();
+
+        long start = System.nanoTime();
+        int inserted = insertRows(generate(rows, accountIds, categories));
+        System.out.printf("Inserted %,d transactions in %.1f s%n", inserted, (System.nanoTime() - start) / 1e9);
+        return new int[] { accountIds[0], categories.get(1).getId() };
+    }
+
+    // Version 1 stores category types as lowercase labels, which CategoryDAO no longer writes
+    private static void insertCategories(List<Category> categories) throws SQLException {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        pool.acquire();
+        try {
+            PreparedStatement stmt = pool.prepareStatement("INSERT INTO categories (name, type, budget) VALUES (?, ?, ?)");
+            for (Category category : categories) {
+                stmt.setString(1, category.getName());
+                stmt.setString(2, category.getType().getLabel().toLowerCase());
+                stmt.setDouble(3, category.getBudget());
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) category.setId(keys.getInt(1));
+                }
+            }
+        } finally {
+            pool.release();
+        }
+    }
+
+    // Plain batched inserts: TransactionDAO keeps later schema objects (the balance snapshots) current,
+    // which do not exist yet at version 1. Migration 3 builds the snapshots from these rows, and
+    // migration 4 turns the type labels into codes.
+    private static int insertRows(Iterator<Transaction> transactions) throws SQLException {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        Connection connection = pool.acquire();
+        try {
+            connection.setAutoCommit(false);
+            PreparedStatement stmt = pool.prepareStatement("INSERT INTO transactions "
+                    + "(date_time, amount, source_account, category, destination_account, note, type) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            int count = 0;
+            while (transactions.hasNext()) {
+                Transaction t = transactions.next();
+                stmt.setTimestamp(1, TimeUtils.toUtcTimestamp(t.getDateTime()));
+                stmt.setDouble(2, t.getAmount());
+                stmt.setInt(3, t.getSourceAccount());
+                stmt.setObject(4, t.getCategory() != 0 ? t.getCategory() : null);
+                stmt.setObject(5, t.getDestinationAccount() != 0 ? t.getDestinationAccount() : null);
+                stmt.setString(6, t.getNote());
+                stmt.setString(7, t.getType().getLabel());
+                stmt.addBatch();
+                if (++count % 1000 == 0) stmt.executeBatch();
+            }
+            stmt.executeBatch();
+            connection.commit();
+            return count;
+        } finally {
+            connection.setAutoCommit(true);
+            pool.release();
+        }
+    }
+
+    // Lazily generated, so the ledger is never held in memory
+    private static Iterator<Transaction> generate(int rows, int[] accountIds, List<Category> categories) {
+        Random random = new Random(42);
+        LocalDateTime first = LocalDateTime.now().minusYears(YEARS);
+        long spanMinutes = YEARS * 365L * 24 * 60;
+        return new Iterator<Transaction>() {
+            private int produced;
+
+            @Override
+            public boolean hasNext() {
+                return produced < rows;
+            }
+
+            @Override
+            public Transaction next() {
+                produced++;
+                Transaction t = new Transaction();
+                t.setDateTime(first.plusMinutes((long) (random.nextDouble() * spanMinutes)));
+                t.setAmount(1 + random.nextInt(500_000) / 100.0);
+                t.setSourceAccount(accountIds[random.nextInt(accountIds.length)]);
+                t.setNote("Generated " + produced);
+                int kind = random.nextInt(10);
+                if (kind == 0) {
+                    t.setType(TransactionType.TRANSFER);
+                    t.setDestinationAccount(accountIds[random.nextInt(accountIds.length)]);
+                } else {
+                    Category category = categories.get(random.nextInt(categories.size()));
+                    t.setType(category.getType());
+                    t.setCategory(category.getId());
+                }
+                return t;
+            }
+        };
+    }
+
+    // snapshots: whether the schema is fully migrated (balance snapshot table, type codes)
+    private static Map<String, double[]> measure(String title, int[] ids, boolean snapshots) throws Exception {
+        int accountId = ids[0];
+        int categoryId = ids[1];
+        LocalDate month = LocalDate.now().minusYears(YEARS / 2).withDayOfMonth(1);
+        TransactionDAO transactionDAO = new TransactionDAO();
+        AccountDAO accountDAO = new AccountDAO();
+        TransactionService transactionService = new TransactionService();
+        List<TransactionFilterStrategy> filters = new ArrayList<>();
+        filters.add(new DateFilterStrategy(month, month.plusMonths(3).minusDays(1)));
+        filters.add(new AccountFilterStrategy(account(accountId)));
+
+        System.out.println();
+        System.out.println("== " + title);
+        Map<String, double[]> results = new LinkedHashMap<>();
+
+        explain("findByMonth", "SELECT * FROM transactions WHERE date_time >= ? AND date_time < ? ORDER BY date_time DESC",
+                TimeUtils.toUtcTimestamp(month.atStartOfDay()), TimeUtils.toUtcTimestamp(month.plusMonths(1).atStartOfDay()));
+        results.put("findByMonth", time(() -> transactionDAO.findByMonth(month.getMonthValue(), month.getYear())));
+
+        Object[] balanceParams = { accountId, accountId, accountId, accountId, month.toString(), accountId };
+        String balanceSql = snapshots
+                ? String.format(LEGACY_BALANCE_SQL, TransactionType.INCOME.getCode(), TransactionType.EXPENSE.getCode(), TransactionType.TRANSFER.getCode())
+                : String.format(LEGACY_BALANCE_SQL, "'Income'", "'Expense'", "'Transfer'");
+        explain("end-of-month balance (scan)", balanceSql, balanceParams);
+        results.put("end-of-month balance (scan)", time(() -> scalar(balanceSql, balanceParams)));
+        if (snapshots) {
+            results.put("end-of-month balance (snapshot)", time(() -> accountDAO.getBalanceAtEndOfMonth(accountId, month.getMonthValue(), month.getYear())));
+        }
+
+        explain("category (delete path)", "SELECT id FROM transactions WHERE category = ?", categoryId);
+        results.put("category (delete path)", time(() -> scalar("SELECT COUNT(*) FROM transactions WHERE category = ?", categoryId)));
+
+        results.put("quarter + account filter", time(() -> transactionService.findTransactions(filters)));
+        return results;
+    }
+
+    private static Account account(int id) {
+        Account account = new Account();
+        account.setId(id);
+        return account;
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        void run() throws Exception;
+    }
+
+    // {median, p90} in milliseconds
+    private static double[] time(Query query) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) query.run();
+        double[] millis = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return new double[] { millis[MEASURED_RUNS / 2], millis[MEASURED_RUNS * 9 / 10] };
+    }
+
+    private static void explain(String name, String sql, Object... params) throws SQLException {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        pool.acquire();
+        try {
+            PreparedStatement stmt = pool.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+            for (int i = 0; i < params.length; i++) stmt.setObject(i + 1, params[i]);
+            System.out.println(name + ":");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) System.out.println("    " + rs.getString("detail"));
+            }
+        } finally {
+            pool.release();
+        }
+    }
+
+    // First column of the first row
+    private static double scalar(String sql, Object... params) throws SQLException {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        pool.acquire();
+        try {
+            PreparedStatement stmt = pool.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) stmt.setObject(i + 1, params[i]);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0;
+            }
+        } finally {
+            pool.release();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import gui.components.chart.util.hansolo.Helper;
+import gui.components.chart.util.hansolo.PathSmoother;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Point2D;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+
+/**
+ * SmoothedChart's path smoothing as one layout pass runs it: PathSmoother's primitive
+ * spline with reused elements against the Point2D implementation it replaced. Each call
+ * starts from the straight stroke and fill paths the chart lays out for a series.
+ * <p>
+ * Run with the test classpath: {@code java benchmark.SmoothingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmoothingBenchmark {
+    private static final int SUB_DIVISIONS = 16;
+    private static final double HEIGHT = 400;
+
+    @Param({ "1000", "10000", "100000" })
+    private int points;
+
+    private List<PathElement> stroke;
+    private List<PathElement> fill;
+    private final ObservableList<PathElement> strokeElements = FXCollections.observableArrayList();
+    private final ObservableList<PathElement> fillElements = FXCollections.observableArrayList();
+    private final PathSmoother smoother = new PathSmoother();
+
+    // The paths AreaChart lays out: a move to the first point, then a line to every point
+    @Setup
+    public void generate() {
+        Random random = new Random(42);
+        List<LineTo> lines = new ArrayList<>(points);
+        double y = HEIGHT / 2;
+        for (int i = 0; i < points; i++) {
+            y = Math.max(0, Math.min(HEIGHT, y + random.nextGaussian() * 10));
+            lines.add(new LineTo(i * 1000.0 / points, y));
+        }
+        stroke = new ArrayList<>(lines.size() + 1);
+        stroke.add(new MoveTo(lines.get(0).getX(), lines.get(0).getY()));
+        stroke.addAll(lines);
+        fill = new ArrayList<>(lines.size() + 3);
+        fill.add(new MoveTo(lines.get(0).getX(), HEIGHT));
+        fill.addAll(lines);
+        fill.add(new LineTo(lines.get(lines.size() - 1).getX(), HEIGHT));
+        fill.add(new ClosePath());
+    }
+
+    @Benchmark
+    public ObservableList<PathElement> smoothLegacy() {
+        strokeElements.setAll(stroke);
+        fillElements.setAll(fill);
+        Legacy.smooth(strokeElements, fillElements, HEIGHT, SUB_DIVISIONS);
+        return strokeElements;
+    }
+
+    @Benchmark
+    public ObservableList<PathElement> smooth() {
+        strokeElements.setAll(stroke);
+        fillElements.setAll(fill);
+        smoother.smooth(strokeElements, fillElements, HEIGHT, SUB_DIVISIONS);
+        return strokeElements;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(SmoothingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // SmoothedChart.smooth as it was: a Point2D per data point and per subdivision, a new LineTo per subdivision
+    private static class Legacy {
+        static void smooth(ObservableList<PathElement> strokeElements, ObservableList<PathElement> fillElements, double height, int subDivisions) {
+            if (fillElements.isEmpty()) return;
+            final Point2D[] dataPoints = new Point2D[strokeElements.size()];
+            for (int i = 0; i < strokeElements.size(); i++) {
+                final PathElement element = strokeElements.get(i);
+                if (element instanceof MoveTo) {
+                    final MoveTo move = (MoveTo) element;
+                    dataPoints[i] = new Point2D(move.getX(), move.getY());
+                } else if (element instanceof LineTo) {
+                    final LineTo line = (LineTo) element;
+                    dataPoints[i] = new Point2D(line.getX(), line.getY());
+                }
+            }
+            double firstX = dataPoints[0].getX();
+            double lastX = dataPoints[dataPoints.length - 1].getX();
+
+            Point2D[] points = Helper.subdividePoints(dataPoints, subDivisions);
+
+            fillElements.clear();
+            fillElements.add(new MoveTo(firstX, height));
+
+            strokeElements.clear();
+            strokeElements.add(new MoveTo(points[0].getX(), points[0].getY()));
+
+            for (Point2D p : points) {
+                if (Double.compare(p.getX(), firstX) >= 0) {
+                    fillElements.add(new LineTo(p.getX(), p.getY()));
+                    strokeElements.add(new LineTo(p.getX(), p.getY()));
+                }
+            }
+
+            fillElements.add(new LineTo(lastX, height));
+            fillElements.add(new LineTo(0, height));
+            fillElements.add(new ClosePath());
+        }
+    }
+}